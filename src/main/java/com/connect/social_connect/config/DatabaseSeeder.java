@@ -1,6 +1,7 @@
 package com.connect.social_connect.config;
 
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 import com.connect.social_connect.domain.Role;
@@ -9,6 +10,7 @@ import com.connect.social_connect.repository.RoleRepository;
 import lombok.extern.slf4j.Slf4j;
 
 @Component
+@Order(1)
 @Slf4j
 public class DatabaseSeeder implements CommandLineRunner {
 
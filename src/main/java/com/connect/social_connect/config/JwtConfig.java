@@ -15,6 +15,8 @@ import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 public class JwtConfig {
     public static final MacAlgorithm JWT_ALGORITHM = MacAlgorithm.HS256;
@@ -22,13 +24,14 @@ public class JwtConfig {
     @Value("${app.jwt.base64-secret}")
     private String jwtKey;
 
+    @Value("${app.jwt.decoder-cache-size:10000}")
+    private long decoderCacheSize;
+
 
     @Bean
-    public JwtDecoder jwtDecoder() {
-        SecretKey secretKey = getSecretKey();
-        return NimbusJwtDecoder.withSecretKey(secretKey)
-                .macAlgorithm(JWT_ALGORITHM)
-                .build();
+    public JwtDecoder jwtDecoder(MeterRegistry meterRegistry) {
+        // Verified tokens are cached until their exp, see CachingJwtDecoder
+        return new CachingJwtDecoder(buildDecoder(getSecretKey()), decoderCacheSize, meterRegistry);
     }
 
     @Bean
@@ -37,6 +40,13 @@ public class JwtConfig {
         return new NimbusJwtEncoder(new ImmutableSecret<>(secretKey));
     }
 
+    // Plain Nimbus decoder without caching
+    public static NimbusJwtDecoder buildDecoder(SecretKey secretKey) {
+        return NimbusJwtDecoder.withSecretKey(secretKey)
+                .macAlgorithm(JWT_ALGORITHM)
+                .build();
+    }
+
     private SecretKey getSecretKey() {
         byte[] keyBytes = Base64.from(jwtKey).decode();
         return new SecretKeySpec(keyBytes, 0, keyBytes.length, JWT_ALGORITHM.getName());
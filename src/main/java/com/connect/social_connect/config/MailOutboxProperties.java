@@ -0,0 +1,36 @@
+package com.connect.social_connect.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Email outbox dispatch under app.mail.outbox, see application-example.yaml
+@Component
+@ConfigurationProperties(prefix = "app.mail.outbox")
+@Getter
+@Setter
+public class MailOutboxProperties {
+
+    private boolean enabled = true;
+
+    // Sends in flight at once on this node
+    private int concurrency = 8;
+
+    // Rows claimed per poll, capped by free send slots
+    private int batchSize = 50;
+
+    // Idle wait between polls; new rows wake the dispatcher right after commit
+    private Duration pollInterval = Duration.ofSeconds(2);
+
+    // A claimed row goes back to the pool if its send has not finished by then
+    private Duration lease = Duration.ofMinutes(1);
+
+    // Attempts before a row is dead-lettered, and the retry backoff (doubling, capped)
+    private int maxAttempts = 8;
+    private Duration initialBackoff = Duration.ofSeconds(5);
+    private Duration maxBackoff = Duration.ofHours(1);
+}
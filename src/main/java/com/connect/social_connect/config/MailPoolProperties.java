@@ -0,0 +1,32 @@
+package com.connect.social_connect.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Pooled SMTP sessions under app.mail.pool, see application-example.yaml
+@Component
+@ConfigurationProperties(prefix = "app.mail.pool")
+@Getter
+@Setter
+public class MailPoolProperties {
+
+    // false falls back to Spring Boot's sender: one connection per send call
+    private boolean enabled = true;
+
+    // SMTP sessions open at once; senders beyond this wait up to borrow-timeout
+    private int size = 4;
+
+    // A session is closed and replaced after this many messages (servers cap it per connection)
+    private int maxMessagesPerConnection = 100;
+
+    // A session idle for longer is checked with NOOP before reuse, and closed after max-idle
+    private Duration validateAfterIdle = Duration.ofSeconds(30);
+    private Duration maxIdle = Duration.ofMinutes(4);
+
+    private Duration borrowTimeout = Duration.ofSeconds(30);
+}
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Component;
 import com.connect.social_connect.domain.User;
 import com.connect.social_connect.domain.response.ResLoginDTO;
 import com.connect.social_connect.service.AuthService;
+import com.connect.social_connect.service.RefreshSessionService;
 import com.connect.social_connect.service.UserService;
 
 import jakarta.servlet.ServletException;
@@ -23,13 +24,16 @@ public class OAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHandler
 
     private final UserService userService;
     private final AuthService authService;
+    private final RefreshSessionService refreshSessionService;
 
     @Value("${app.oauth2.redirect-uri}")
     private String frontendRedirectUri;
 
-    public OAuth2SuccessHandler(UserService userService, AuthService authService) {
+    public OAuth2SuccessHandler(UserService userService, AuthService authService,
+            RefreshSessionService refreshSessionService) {
         this.userService = userService;
         this.authService = authService;
+        this.refreshSessionService = refreshSessionService;
     }
 
     @Override
@@ -52,8 +56,8 @@ public class OAuth2SuccessHandler extends SimpleUrlAuthenticationSuccessHandler
         String accessToken = authService.createAccessToken(email, resLoginDTO);
         String refreshToken = authService.createRefreshToken(email, resLoginDTO);
 
-        // 4. Save refresh token to database
-        userService.updateUserToken(refreshToken, email);
+        // 4. Open a refresh session for this device
+        refreshSessionService.createSession(user, refreshToken, request);
 
         // 5. Set refresh token as HttpOnly cookie
         ResponseCookie refreshCookie = ResponseCookie.from("refresh_token", refreshToken)
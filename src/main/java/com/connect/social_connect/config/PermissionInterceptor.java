@@ -1,64 +1,123 @@
 package com.connect.social_connect.config;
 
-import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
 
-import com.connect.social_connect.domain.Permission;
-import com.connect.social_connect.domain.Role;
 import com.connect.social_connect.domain.User;
+import com.connect.social_connect.service.AuthorizationService;
 import com.connect.social_connect.service.UserService;
 import com.connect.social_connect.util.SecurityUtil;
+import com.connect.social_connect.util.UserPrincipal;
 import com.connect.social_connect.util.error.PermissionException;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 public class PermissionInterceptor implements HandlerInterceptor {
 
+    // Outcome tag values of the authorization.check metrics
+    static final String OUTCOME_ALLOWED = "allowed";
+    static final String OUTCOME_DENIED = "denied";
+    static final String OUTCOME_REVOKED = "revoked";
+    static final String OUTCOME_UNAUTHENTICATED = "unauthenticated";
+    static final String OUTCOME_USER_MISSING = "user-missing";
+
     private final UserService userService;
+    private final AuthorizationService authorizationService;
+    private final MeterRegistry meterRegistry;
+    private final long slowCheckThresholdNanos;
+    private final double slowCheckSampleRate;
 
-    public PermissionInterceptor(UserService userService) {
+    public PermissionInterceptor(UserService userService, AuthorizationService authorizationService,
+            MeterRegistry meterRegistry, long slowCheckThresholdMs, double slowCheckSampleRate) {
         this.userService = userService;
+        this.authorizationService = authorizationService;
+        this.meterRegistry = meterRegistry;
+        this.slowCheckThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowCheckThresholdMs);
+        this.slowCheckSampleRate = slowCheckSampleRate;
     }
 
     @Override
-    @Transactional
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
             throws Exception {
         String path = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
         String httpMethod = request.getMethod();
 
-        String email = SecurityUtil.getCurrentUserLogin().orElse("");
-
-        if (email == null || email.isEmpty()) {
-            throw new PermissionException("Bạn cần đăng nhập để truy cập endpoint này.");
-        }
-
-        User user = this.userService.handleGetUserByUsername(email);
-        if (user == null) {
-            throw new PermissionException("Không tìm thấy thông tin người dùng.");
-        }
-
-        Role role = user.getRole();
-        if (role == null) {
-            throw new PermissionException("Bạn không có quyền truy cập endpoint này.");
+        long start = System.nanoTime();
+        long statementsBefore = StatementCounter.current();
+        String outcome = OUTCOME_DENIED;
+        try {
+            Long roleId;
+            Optional<UserPrincipal> principal = SecurityUtil.getCurrentPrincipal();
+            if (principal.isPresent()) {
+                // Role id from the token claims
+                UserPrincipal current = principal.get();
+                if (authorizationService.isRevoked(current)) {
+                    outcome = OUTCOME_REVOKED;
+                    throw new PermissionException("Quyền truy cập của bạn đã thay đổi. Vui lòng đăng nhập lại.");
+                }
+                authorizationService.refreshIfStale(current);
+                roleId = current.roleId();
+            } else {
+                // Tokens issued without the claims fall back to the database
+                String email = SecurityUtil.getCurrentUserLogin().orElse("");
+                if (email == null || email.isEmpty()) {
+                    outcome = OUTCOME_UNAUTHENTICATED;
+                    throw new PermissionException("Bạn cần đăng nhập để truy cập endpoint này.");
+                }
+
+                User user = this.userService.handleGetUserByUsername(email);
+                if (user == null) {
+                    outcome = OUTCOME_USER_MISSING;
+                    throw new PermissionException("Không tìm thấy thông tin người dùng.");
+                }
+                roleId = user.getRole() != null ? user.getRole().getId() : null;
+            }
+
+            // Single lookup in the compiled index, no permission collection loading
+            if (roleId == null || !authorizationService.isAllowed(roleId, httpMethod, path)) {
+                throw new PermissionException("Bạn không có quyền truy cập endpoint này.");
+            }
+
+            outcome = OUTCOME_ALLOWED;
+            return true;
+        } finally {
+            record(path, httpMethod, outcome, System.nanoTime() - start,
+                    StatementCounter.current() - statementsBefore);
         }
+    }
 
-        List<Permission> permissions = role.getPermissions();
-        if (permissions == null || permissions.isEmpty()) {
-            throw new PermissionException("Bạn không có quyền truy cập endpoint này.");
-        }
-
-        boolean isAllowed = permissions.stream()
-                .anyMatch(p -> p.getApiPath().equals(path) && p.getMethod().equals(httpMethod));
-
-        if (!isAllowed) {
-            throw new PermissionException("Bạn không có quyền truy cập endpoint này.");
+    private void record(String path, String httpMethod, String outcome, long elapsedNanos, long statements) {
+        String pattern = path != null ? path : "UNKNOWN";
+        Timer.builder("authorization.check")
+                .description("Latency of the permission check per route")
+                .tag("pattern", pattern)
+                .tag("method", httpMethod)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("authorization.check.statements")
+                .description("DB statements issued by permission checks")
+                .tag("pattern", pattern)
+                .tag("method", httpMethod)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(statements);
+
+        // Sampled so a slow database cannot flood the log
+        if (elapsedNanos > slowCheckThresholdNanos
+                && ThreadLocalRandom.current().nextDouble() < slowCheckSampleRate) {
+            log.warn("Slow authorization check: {} {} outcome={} took {} ms with {} DB statements",
+                    httpMethod, pattern, outcome, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), statements);
         }
-
-        return true;
     }
 }
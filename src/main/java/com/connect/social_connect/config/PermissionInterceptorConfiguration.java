@@ -1,44 +1,64 @@
 package com.connect.social_connect.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.connect.social_connect.service.AuthorizationService;
 import com.connect.social_connect.service.UserService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 @Configuration
 public class PermissionInterceptorConfiguration implements WebMvcConfigurer {
 
+    // Whitelist endpoints that don't require permission checking (also skipped by PermissionSyncRunner)
+    public static final String[] WHITELIST = {
+            "/",
+            "/api/v1/auth/**",
+            "/oauth2/**",
+            "/login/oauth2/**",
+            "/v3/api-docs/**",
+            "/swagger-ui/**",
+            "/swagger-ui.html",
+            // User profile endpoints - public profile viewing
+            "/api/v1/users/{id}",
+            "/api/v1/users/batch",
+            // Current user profile endpoints - authenticated but no permission check needed
+            "/api/v1/users/me",
+            "/api/v1/users/search",
+            "/api/v1/mentions"
+    };
+
     private final UserService userService;
+    private final AuthorizationService authorizationService;
+    private final MeterRegistry meterRegistry;
+
+    // Checks slower than this are logged, for the sampled fraction of them
+    @Value("${app.authorization.slow-check-threshold-ms:20}")
+    private long slowCheckThresholdMs;
 
-    public PermissionInterceptorConfiguration(UserService userService) {
+    @Value("${app.authorization.slow-check-sample-rate:0.1}")
+    private double slowCheckSampleRate;
+
+    public PermissionInterceptorConfiguration(UserService userService, AuthorizationService authorizationService,
+            MeterRegistry meterRegistry) {
         this.userService = userService;
+        this.authorizationService = authorizationService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
     PermissionInterceptor getPermissionInterceptor() {
-        return new PermissionInterceptor(userService);
+        return new PermissionInterceptor(userService, authorizationService, meterRegistry,
+                slowCheckThresholdMs, slowCheckSampleRate);
     }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        // Whitelist endpoints that don't require permission checking
-        String[] whiteList = {
-                "/",
-                "/api/v1/auth/**",
-                "/oauth2/**",
-                "/login/oauth2/**",
-                "/v3/api-docs/**",
-                "/swagger-ui/**",
-                "/swagger-ui.html",
-                // User profile endpoints - public profile viewing
-                "/api/v1/users/{id}",
-                // Current user profile endpoints - authenticated but no permission check needed
-                "/api/v1/users/me"
-        };
-
         registry.addInterceptor(getPermissionInterceptor())
-                .excludePathPatterns(whiteList);
+                .excludePathPatterns(WHITELIST);
     }
 }
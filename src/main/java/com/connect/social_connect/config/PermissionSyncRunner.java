@@ -0,0 +1,173 @@
+package com.connect.social_connect.config;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import com.connect.social_connect.service.AuthorizationService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Registers a Permission row for every controller endpoint at startup, so
+ * permissions no longer have to be created by hand. Existing rows are read in
+ * one query and only the missing (apiPath, method) pairs are inserted, in a
+ * single JDBC batch. Nodes starting together compute the same missing set, so
+ * the insert skips rows another node has written meanwhile. Runs after
+ * DatabaseSeeder so the ADMIN role exists.
+ */
+@Component
+@Order(2)
+@Slf4j
+public class PermissionSyncRunner implements CommandLineRunner {
+
+    private static final String CREATED_BY = "system:permission-sync";
+
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthorizationService authorizationService;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Value("${app.permission-sync.enabled:true}")
+    private boolean enabled;
+
+    // Only endpoints under this prefix are registered (skips /error and the like)
+    @Value("${app.permission-sync.path-prefix:/api/}")
+    private String pathPrefix;
+
+    @Value("${app.permission-sync.grant-admin:true}")
+    private boolean grantAdmin;
+
+    public PermissionSyncRunner(
+            @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            AuthorizationService authorizationService) {
+        this.handlerMapping = handlerMapping;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.authorizationService = authorizationService;
+    }
+
+    @Override
+    public void run(String... args) {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+
+        // "METHOD path" -> [path, method, module], sorted for a stable insert order
+        Map<String, String[]> endpoints = collectEndpoints();
+
+        // One query for every existing (apiPath, method) pair
+        Set<String> existing = new HashSet<>(jdbcTemplate.query(
+                "SELECT api_path, method FROM permissions",
+                (rs, rowNum) -> key(rs.getString("method"), rs.getString("api_path"))));
+
+        List<Object[]> missing = new ArrayList<>();
+        Timestamp createdAt = Timestamp.from(Instant.now());
+        endpoints.forEach((key, endpoint) -> {
+            if (!existing.contains(key)) {
+                missing.add(new Object[] { key, endpoint[0], endpoint[1], endpoint[2], createdAt, CREATED_BY });
+            }
+        });
+
+        int[] insertedCount = { 0 };
+        if (!missing.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                // IGNORE: a row another node inserted since the read above hits the unique keys
+                int[] inserted = jdbcTemplate.batchUpdate(
+                        "INSERT IGNORE INTO permissions (name, api_path, method, module, created_at, created_by) "
+                                + "VALUES (?, ?, ?, ?, ?, ?)",
+                        missing);
+                for (int count : inserted) {
+                    insertedCount[0] += Math.max(count, 0);
+                }
+
+                if (grantAdmin) {
+                    // Grant every pair that was missing, whichever node inserted it, as a second batch;
+                    // the join table has no unique key, so guard against duplicates explicitly
+                    List<Object[]> grants = new ArrayList<>();
+                    for (Object[] row : missing) {
+                        grants.add(new Object[] { row[1], row[2] });
+                    }
+                    jdbcTemplate.batchUpdate(
+                            "INSERT INTO permission_role (role_id, permission_id) "
+                                    + "SELECT r.id, p.id FROM roles r JOIN permissions p "
+                                    + "ON p.api_path = ? AND p.method = ? "
+                                    + "WHERE r.name = 'ADMIN' AND NOT EXISTS ("
+                                    + "SELECT 1 FROM permission_role pr WHERE pr.role_id = r.id AND pr.permission_id = p.id)",
+                            grants);
+                }
+
+                authorizationService.recordChange();
+            });
+        }
+
+        log.info("Permission sync: {} endpoints, {} already registered, {} inserted in {} ms",
+                endpoints.size(), endpoints.size() - missing.size(), insertedCount[0],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private Map<String, String[]> collectEndpoints() {
+        Map<String, String[]> endpoints = new TreeMap<>();
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : handlerMapping.getHandlerMethods().entrySet()) {
+            RequestMappingInfo info = entry.getKey();
+            Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+            if (methods.isEmpty()) {
+                log.debug("Skipping {} without an explicit HTTP method", entry.getValue());
+                continue;
+            }
+            for (String path : info.getPatternValues()) {
+                if (!path.startsWith(pathPrefix) || isWhitelisted(path)) {
+                    continue;
+                }
+                for (RequestMethod method : methods) {
+                    endpoints.put(key(method.name(), path), new String[] { path, method.name(), moduleOf(path) });
+                }
+            }
+        }
+        return endpoints;
+    }
+
+    private boolean isWhitelisted(String path) {
+        for (String pattern : PermissionInterceptorConfiguration.WHITELIST) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // First segment after the prefix and version, e.g. /api/v1/users/{id} -> USERS
+    private String moduleOf(String path) {
+        String[] segments = path.substring(pathPrefix.length()).split("/");
+        int index = segments.length > 1 && segments[0].matches("v\\d+") ? 1 : 0;
+        return segments[index].toUpperCase(Locale.ROOT);
+    }
+
+    private static String key(String method, String path) {
+        return method + " " + path;
+    }
+}
@@ -0,0 +1,247 @@
+package com.connect.social_connect.config;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * JavaMailSender that keeps a few authenticated SMTP sessions open instead of
+ * connecting, doing TLS and AUTH, and disconnecting on every send call. Each
+ * call borrows one session and sends all of its messages over it, so
+ * send(MimeMessage...) is the batch API: a batch costs one handshake at most.
+ *
+ * A session the server has dropped (idle timeout, restart) is replaced and the
+ * message resent once on the new one. A session that failed a message for any
+ * other reason is closed rather than reused, since the SMTP state after a
+ * rejected transaction depends on the server. Failures are reported like
+ * JavaMailSenderImpl does: a MailSendException listing the failed messages.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private final int maxMessagesPerConnection;
+    private final long validateAfterIdleNanos;
+    private final long maxIdleNanos;
+    private final long borrowTimeoutNanos;
+
+    // Idle sessions, most recently used first, so a quiet period leaves the stale ones at the tail
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+    // One permit per session that may be open
+    private final Semaphore permits;
+    private final AtomicInteger openCount = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final Counter connects;
+    private final Counter reconnects;
+
+    public PooledJavaMailSender(MailPoolProperties properties, MeterRegistry meterRegistry) {
+        this.maxMessagesPerConnection = Math.max(1, properties.getMaxMessagesPerConnection());
+        this.validateAfterIdleNanos = properties.getValidateAfterIdle().toNanos();
+        this.maxIdleNanos = properties.getMaxIdle().toNanos();
+        this.borrowTimeoutNanos = properties.getBorrowTimeout().toNanos();
+        this.permits = new Semaphore(Math.max(1, properties.getSize()));
+
+        Gauge.builder("mail.pool.open", openCount, AtomicInteger::get)
+                .description("Open SMTP sessions")
+                .register(meterRegistry);
+        Gauge.builder("mail.pool.idle", idle, ConcurrentLinkedDeque::size)
+                .description("Open SMTP sessions not in use")
+                .register(meterRegistry);
+        this.connects = Counter.builder("mail.pool.connects").register(meterRegistry);
+        this.reconnects = Counter.builder("mail.pool.reconnects").register(meterRegistry);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        acquirePermit();
+        PooledConnection connection = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage message = mimeMessages[i];
+                Object original = originalMessages != null ? originalMessages[i] : message;
+                Address[] recipients;
+                try {
+                    recipients = prepare(message);
+                } catch (MessagingException ex) {
+                    failedMessages.put(original, ex);
+                    continue;
+                }
+
+                for (int attempt = 1;; attempt++) {
+                    if (connection == null) {
+                        try {
+                            connection = borrow();
+                        } catch (AuthenticationFailedException ex) {
+                            throw new MailAuthenticationException(ex);
+                        } catch (MessagingException ex) {
+                            // No session, so this and every remaining message failed
+                            for (int j = i; j < mimeMessages.length; j++) {
+                                failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], ex);
+                            }
+                            throw new MailSendException("Mail server connection failed", ex, failedMessages);
+                        }
+                    }
+                    try {
+                        connection.transport.sendMessage(message, recipients);
+                        connection.sent++;
+                        break;
+                    } catch (MessagingException | IllegalStateException ex) {
+                        close(connection);
+                        connection = null;
+                        if (attempt == 1 && isConnectionFailure(ex)) {
+                            reconnects.increment();
+                            continue;
+                        }
+                        failedMessages.put(original, ex);
+                        break;
+                    }
+                }
+
+                if (connection != null && connection.sent >= maxMessagesPerConnection) {
+                    close(connection);
+                    connection = null;
+                }
+            }
+        } finally {
+            release(connection);
+            permits.release();
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            close(connection);
+        }
+    }
+
+    private void acquirePermit() {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new MailSendException("No SMTP session free within the borrow timeout");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP session", e);
+        }
+    }
+
+    // The freshest idle session still fit for use, else a new one
+    private PooledConnection borrow() throws MessagingException {
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            long idleNanos = System.nanoTime() - connection.lastUsedNanos;
+            if (idleNanos > maxIdleNanos
+                    || (idleNanos > validateAfterIdleNanos && !connection.transport.isConnected())) {
+                close(connection);
+                continue;
+            }
+            return connection;
+        }
+
+        Transport transport = connectTransport();
+        openCount.incrementAndGet();
+        connects.increment();
+        return new PooledConnection(transport);
+    }
+
+    private void release(PooledConnection connection) {
+        if (connection == null) {
+            return;
+        }
+        if (closed) {
+            close(connection);
+            return;
+        }
+        connection.lastUsedNanos = System.nanoTime();
+        idle.offerFirst(connection);
+
+        // Sessions left unused for max-idle are closed here rather than by a timer
+        PooledConnection last;
+        while ((last = idle.peekLast()) != null && System.nanoTime() - last.lastUsedNanos > maxIdleNanos) {
+            if (idle.removeLastOccurrence(last)) {
+                close(last);
+            }
+        }
+    }
+
+    private void close(PooledConnection connection) {
+        openCount.decrementAndGet();
+        try {
+            connection.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Closing SMTP session failed: {}", e.getMessage());
+        }
+    }
+
+    // Same header handling as JavaMailSenderImpl before a message goes out
+    private static Address[] prepare(MimeMessage message) throws MessagingException {
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            // Preserve explicitly specified message id
+            message.setHeader("Message-ID", messageId);
+        }
+        Address[] addresses = message.getAllRecipients();
+        return addresses != null ? addresses : new Address[0];
+    }
+
+    // The session is gone (socket error, "Not connected", 421 closing channel, or EOF), not the message
+    static boolean isConnectionFailure(Throwable e) {
+        if (e instanceof IllegalStateException) {
+            return true;
+        }
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof IOException) {
+                return true;
+            }
+            String message = String.valueOf(t.getMessage());
+            if (t instanceof MessagingException && (message.startsWith("421") || message.startsWith("[EOF]"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class PooledConnection {
+        private final Transport transport;
+        private int sent;
+        private long lastUsedNanos;
+
+        PooledConnection(Transport transport) {
+            this.transport = transport;
+            this.lastUsedNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.connect.social_connect.config;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.connect.social_connect.domain.response.RestResponse;
+import com.connect.social_connect.util.RateLimiter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Token-bucket throttling for the public auth endpoints, keyed by client IP and
+ * by the email in the request body. Runs ahead of Spring Security so rejected
+ * requests cost neither a JWT decode, a BCrypt hash nor a database query.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Auth bodies are tiny; a larger one on an email-keyed route is refused rather than let past the email limit
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+
+    private final RateLimitProperties properties;
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.rateLimiter = new RateLimiter(properties.getMaxKeys(), properties.getIdleEviction());
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("rate.limit.buckets", rateLimiter, RateLimiter::size).register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || findRoute(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+        RateLimitProperties.Route route = findRoute(request);
+
+        // Cheap IP check first, before the body is even read
+        long wait = check(route, "ip", request.getRemoteAddr(), route.getIp());
+        if (wait > 0) {
+            reject(response, wait);
+            return;
+        }
+
+        HttpServletRequest chainRequest = request;
+        if (route.getEmailField() != null && route.getEmail() != null) {
+            if (request.getContentLengthLong() > MAX_BODY_BYTES) {
+                rejectTooLarge(route, response);
+                return;
+            }
+            CachedBodyRequest cached = new CachedBodyRequest(request);
+            if (cached.body() == null) {
+                // Chunked body without a declared length that turned out too large
+                rejectTooLarge(route, response);
+                return;
+            }
+            chainRequest = cached;
+            String email = extractEmail(cached.body(), route.getEmailField());
+            if (email != null) {
+                wait = check(route, "email", email, route.getEmail());
+                if (wait > 0) {
+                    reject(response, wait);
+                    return;
+                }
+            }
+        }
+
+        filterChain.doFilter(chainRequest, response);
+    }
+
+    private RateLimitProperties.Route findRoute(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            if (route.getPath().equals(path) && route.getMethod().equalsIgnoreCase(request.getMethod())) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private long check(RateLimitProperties.Route route, String keyType, String key, RateLimitProperties.Limit limit) {
+        if (limit == null || limit.getCapacity() <= 0 || key == null) {
+            return 0;
+        }
+        long wait = rateLimiter.tryAcquire(route.getPath() + '|' + keyType + '|' + key,
+                limit.getCapacity(), limit.getPeriod());
+        Counter.builder("rate.limit.requests")
+                .tag("route", route.getPath())
+                .tag("key", keyType)
+                .tag("result", wait > 0 ? "rejected" : "allowed")
+                .register(meterRegistry)
+                .increment();
+        return wait;
+    }
+
+    private String extractEmail(byte[] body, String field) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try {
+            JsonNode value = objectMapper.readTree(body).get(field);
+            if (value == null || !value.isTextual()) {
+                return null;
+            }
+            return value.asText().trim().toLowerCase(Locale.ROOT);
+        } catch (IOException e) {
+            // Malformed JSON is left for the controller to reject
+            return null;
+        }
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+
+        RestResponse<Object> res = new RestResponse<>();
+        res.setStatusCode(HttpStatus.TOO_MANY_REQUESTS.value());
+        res.setError("Too Many Requests");
+        res.setMessage("Bạn đã gửi quá nhiều yêu cầu. Vui lòng thử lại sau " + retryAfterSeconds + " giây.");
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json;charset=UTF-8");
+        objectMapper.writeValue(response.getWriter(), res);
+    }
+
+    private void rejectTooLarge(RateLimitProperties.Route route, HttpServletResponse response) throws IOException {
+        Counter.builder("rate.limit.requests")
+                .tag("route", route.getPath())
+                .tag("key", "email")
+                .tag("result", "too-large")
+                .register(meterRegistry)
+                .increment();
+
+        RestResponse<Object> res = new RestResponse<>();
+        res.setStatusCode(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        res.setError("Payload Too Large");
+        res.setMessage("Nội dung yêu cầu quá lớn.");
+
+        response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+        response.setContentType("application/json;charset=UTF-8");
+        objectMapper.writeValue(response.getWriter(), res);
+    }
+
+    // Buffers up to MAX_BODY_BYTES once so it can be inspected here and read again downstream;
+    // only requests whose whole body fitted are passed on
+    private static class CachedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readNBytes(MAX_BODY_BYTES + 1);
+        }
+
+        // Whole body, or null when it exceeded the buffer
+        byte[] body() {
+            return body.length <= MAX_BODY_BYTES ? body : null;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            ByteArrayInputStream source = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                private boolean finished;
+
+                @Override
+                public int read() throws IOException {
+                    int b = source.read();
+                    finished = b == -1;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = source.read(b, off, len);
+                    finished = n == -1;
+                    return n;
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return finished;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                // Reads never block on the network, so the listener
+                // is told at once that data is available and then that it has all been read
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    try {
+                        readListener.onDataAvailable();
+                        readListener.onAllDataRead();
+                    } catch (IOException e) {
+                        readListener.onError(e);
+                    }
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
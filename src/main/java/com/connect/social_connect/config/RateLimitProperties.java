@@ -0,0 +1,74 @@
+package com.connect.social_connect.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Per-route limits under app.rate-limit, see application-example.yaml
+@Component
+@ConfigurationProperties(prefix = "app.rate-limit")
+@Getter
+@Setter
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Upper bound on tracked buckets across all routes
+    private long maxKeys = 100_000;
+
+    // Idle buckets are dropped after this, keep it >= the longest period
+    private Duration idleEviction = Duration.ofMinutes(15);
+
+    // Replaced as a whole when app.rate-limit.routes is configured
+    private List<Route> routes = defaultRoutes();
+
+    private static List<Route> defaultRoutes() {
+        List<Route> defaults = new ArrayList<>();
+        defaults.add(route("/api/v1/auth/login", "username", 20, 5));
+        defaults.add(route("/api/v1/auth/verify-otp", "email", 20, 5));
+        defaults.add(route("/api/v1/auth/resend-otp", "email", 10, 3));
+
+        // Signup form availability checks, per IP only
+        Route availability = route("/api/v1/auth/availability", null, 60, 0);
+        availability.setMethod("GET");
+        defaults.add(availability);
+        return defaults;
+    }
+
+    private static Route route(String path, String emailField, int ipPerMinute, int emailPerMinute) {
+        Route route = new Route();
+        route.setPath(path);
+        route.setEmailField(emailField);
+        route.setIp(new Limit());
+        route.getIp().setCapacity(ipPerMinute);
+        route.setEmail(new Limit());
+        route.getEmail().setCapacity(emailPerMinute);
+        return route;
+    }
+
+    @Getter
+    @Setter
+    public static class Route {
+        private String path;
+        private String method = "POST";
+
+        // JSON body field holding the email, null to limit by IP only
+        private String emailField;
+
+        private Limit ip;
+        private Limit email;
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int capacity;
+        private Duration period = Duration.ofMinutes(1);
+    }
+}
@@ -1,5 +1,6 @@
 package com.connect.social_connect.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -13,6 +14,8 @@ import org.springframework.security.oauth2.server.resource.authentication.JwtAut
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 
 @Configuration
 @EnableMethodSecurity(securedEnabled = true)
@@ -22,6 +25,16 @@ public class SecurityConfiguration {
     private final OAuth2SuccessHandler oAuth2SuccessHandler;
     private final OAuth2FailureHandler oAuth2FailureHandler;
 
+    @Value("${app.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    // 0 means one worker per available core
+    @Value("${app.password.pool-size:0}")
+    private int passwordPoolSize;
+
+    @Value("${app.password.queue-capacity:64}")
+    private int passwordQueueCapacity;
+
     public SecurityConfiguration(CustomAuthenticationEntryPoint customAuthenticationEntryPoint,
                                   OAuth2SuccessHandler oAuth2SuccessHandler,
                                   OAuth2FailureHandler oAuth2FailureHandler) {
@@ -31,8 +44,11 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int poolSize = passwordPoolSize > 0 ? passwordPoolSize : Runtime.getRuntime().availableProcessors();
+        // Hashes below bcryptStrength are re-encoded on the next successful login, see UserDetailsCustom
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(bcryptStrength), poolSize,
+                passwordQueueCapacity, meterRegistry);
     }
 
     @Bean
@@ -46,6 +62,7 @@ public class SecurityConfiguration {
                 "/api/v1/auth/logout",
                 "/api/v1/auth/verify-otp",
                 "/api/v1/auth/resend-otp",
+                "/api/v1/auth/availability",
                 "/oauth2/**",
                 "/login/oauth2/**",
                 "/v3/api-docs/**",
@@ -58,8 +75,10 @@ public class SecurityConfiguration {
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests(authz -> authz
                         .requestMatchers(whiteList).permitAll()
+                        // Search needs a login even though /{id} below would match it
+                        .requestMatchers(HttpMethod.GET, "/api/v1/users/search").authenticated()
                         // Public profile endpoint - allows viewing other users' profiles without authentication
-                        .requestMatchers(HttpMethod.GET, "/api/v1/users/{id}").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/v1/users/{id}", "/api/v1/users/batch").permitAll()
                         .anyRequest().authenticated())
                 .oauth2Login(oauth2 -> oauth2
                         .successHandler(oAuth2SuccessHandler)
@@ -0,0 +1,24 @@
+package com.connect.social_connect.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so a
+ * caller can measure how many queries a block of code issued by reading the
+ * counter before and after. Registered in HibernateConfig.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    // Statements prepared so far on this thread
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
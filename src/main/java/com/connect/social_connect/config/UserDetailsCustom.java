@@ -4,6 +4,7 @@ import java.util.Collections;
 
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
@@ -12,7 +13,7 @@ import com.connect.social_connect.domain.User;
 import com.connect.social_connect.service.UserService;
 
 @Component("userDetailsService")
-public class UserDetailsCustom implements UserDetailsService {
+public class UserDetailsCustom implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserService userService;
 
@@ -34,4 +35,13 @@ public class UserDetailsCustom implements UserDetailsService {
                 Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().getName()))
         );
     }
+
+    // Called by Spring Security after a successful login when the stored hash uses an older cost
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userService.updatePasswordHash(user.getUsername(), newPassword);
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
@@ -7,32 +7,36 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.connect.social_connect.domain.RefreshSession;
 import com.connect.social_connect.domain.User;
 import com.connect.social_connect.domain.request.ReqLoginDTO;
 import com.connect.social_connect.domain.request.ReqRegisterDTO;
 import com.connect.social_connect.domain.request.ReqResendOtpDTO;
 import com.connect.social_connect.domain.request.ReqVerifyOtpDTO;
+import com.connect.social_connect.domain.response.ResAvailabilityDTO;
 import com.connect.social_connect.domain.response.ResCreateUserDTO;
 import com.connect.social_connect.domain.response.ResLoginDTO;
 import com.connect.social_connect.domain.response.ResResendOtpDTO;
 import com.connect.social_connect.domain.response.ResVerifyOtpDTO;
 import com.connect.social_connect.service.AuthService;
-import com.connect.social_connect.service.EmailService;
 import com.connect.social_connect.service.OtpService;
+import com.connect.social_connect.service.OtpStore;
+import com.connect.social_connect.service.RefreshSessionService;
+import com.connect.social_connect.service.RegistrationService;
 import com.connect.social_connect.service.UserService;
-import com.connect.social_connect.util.SecurityUtil;
 import com.connect.social_connect.util.annotation.ApiMessage;
 import com.connect.social_connect.util.constant.AuthProviderEnum;
 import com.connect.social_connect.util.error.IdInvalidException;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
@@ -43,54 +47,51 @@ public class AuthController {
     private final UserService userService;
     private final AuthService authService;
     private final OtpService otpService;
-    private final EmailService emailService;
-    private final PasswordEncoder passwordEncoder;
+    private final RegistrationService registrationService;
+    private final RefreshSessionService refreshSessionService;
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
     public AuthController(
             UserService userService,
             AuthService authService,
             OtpService otpService,
-            EmailService emailService,
-            PasswordEncoder passwordEncoder,
+            RegistrationService registrationService,
+            RefreshSessionService refreshSessionService,
             AuthenticationManagerBuilder authenticationManagerBuilder) {
         this.userService = userService;
         this.authService = authService;
         this.otpService = otpService;
-        this.emailService = emailService;
-        this.passwordEncoder = passwordEncoder;
+        this.registrationService = registrationService;
+        this.refreshSessionService = refreshSessionService;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
     }
 
-    @PostMapping("/register")
-    @ApiMessage("Đăng ký tài khoản thành công")
-    public ResponseEntity<ResCreateUserDTO> register(@Valid @RequestBody ReqRegisterDTO registerDTO)
-            throws IdInvalidException {
-        // Check if email already exists
-        if (userService.isEmailExist(registerDTO.getEmail())) {
-            throw new IdInvalidException("Email đã tồn tại");
+    // Live availability check for the signup form
+    @GetMapping("/availability")
+    @ApiMessage("Kiểm tra username / email thành công")
+    public ResponseEntity<ResAvailabilityDTO> checkAvailability(
+            @RequestParam(name = "username", required = false) String username,
+            @RequestParam(name = "email", required = false) String email) throws IdInvalidException {
+        if ((username == null || username.isBlank()) && (email == null || email.isBlank())) {
+            throw new IdInvalidException("Cần truyền username hoặc email");
         }
 
-        // Check if username already exists
-        if (userService.isUsernameExist(registerDTO.getUsername())) {
-            throw new IdInvalidException("Username đã tồn tại");
+        ResAvailabilityDTO response = new ResAvailabilityDTO();
+        if (username != null && !username.isBlank()) {
+            response.setUsernameAvailable(!userService.isUsernameExist(username));
         }
+        if (email != null && !email.isBlank()) {
+            response.setEmailAvailable(!userService.isEmailExist(email));
+        }
+        return ResponseEntity.ok(response);
+    }
 
-        // Create new user with isEmailVerified = false and authProvider = LOCAL
-        User user = new User();
-        user.setUsername(registerDTO.getUsername());
-        user.setEmail(registerDTO.getEmail());
-        user.setPasswordHash(passwordEncoder.encode(registerDTO.getPassword()));
-        user.setDisplayName(registerDTO.getDisplayName());
-        user.setIsEmailVerified(false);
-        user.setAuthProvider(AuthProviderEnum.LOCAL);
-
-        // Save user (default USER role is assigned in UserService)
-        User savedUser = userService.handleCreateUser(user);
-
-        // Generate OTP and send email
-        String otpCode = otpService.generateOtp(savedUser.getEmail());
-        emailService.sendOtpEmail(savedUser.getEmail(), otpCode);
+    @PostMapping("/register")
+    @ApiMessage("Đăng ký tài khoản thành công")
+    public ResponseEntity<ResCreateUserDTO> register(@Valid @RequestBody ReqRegisterDTO registerDTO)
+            throws IdInvalidException {
+        // Insert user and OTP in one transaction, OTP email is sent in the background
+        User savedUser = registrationService.register(registerDTO);
 
         // Convert to response DTO
         ResCreateUserDTO response = userService.convertToResCreateUserDTO(savedUser);
@@ -117,28 +118,23 @@ public class AuthController {
             throw new IdInvalidException("Email đã được xác thực trước đó");
         }
 
-        // Check if OTP is locked
-        if (otpService.isOtpLocked(email)) {
+        // Verify OTP (lock check, code check and attempt counting in one store operation)
+        OtpStore.VerifyResult result = otpService.verifyOtp(email, otpCode);
+        if (result == OtpStore.VerifyResult.LOCKED) {
             throw new IdInvalidException("Tài khoản bị khóa do nhập sai OTP quá nhiều lần. Vui lòng thử lại sau.");
         }
 
-        // Verify OTP
-        boolean isValid = otpService.verifyOtp(email, otpCode);
-
         ResVerifyOtpDTO response = new ResVerifyOtpDTO();
 
-        if (!isValid) {
+        if (result != OtpStore.VerifyResult.VERIFIED) {
             // Check if it's expired or invalid
             response.setSuccess(false);
             response.setMessage("Mã OTP không hợp lệ hoặc đã hết hạn");
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         }
 
-        // Activate user (set isEmailVerified = true)
-        User activatedUser = userService.activateUser(email);
-
-        // Send welcome email
-        emailService.sendWelcomeEmail(email, activatedUser.getDisplayName());
+        // Activate user (set isEmailVerified = true) and queue the welcome email
+        registrationService.activate(email);
 
         response.setSuccess(true);
         response.setMessage("Xác thực email thành công. Tài khoản của bạn đã được kích hoạt.");
@@ -163,24 +159,18 @@ public class AuthController {
             throw new IdInvalidException("Email đã được xác thực trước đó");
         }
 
-        // Check remaining resend attempts
-        int remainingAttempts = otpService.getRemainingResendAttempts(email);
-        if (remainingAttempts <= 0) {
-            throw new IdInvalidException("Đã vượt quá số lần gửi lại OTP. Vui lòng đợi 30 phút trước khi thử lại.");
-        }
-
-        // Resend OTP
+        // Resend OTP; the resend limit is checked by the same store operation and the email is queued with it
+        OtpService.ResentOtp resent;
         try {
-            String newOtpCode = otpService.resendOtp(email);
-            emailService.sendOtpEmail(email, newOtpCode);
+            resent = registrationService.resendOtp(email);
         } catch (IllegalStateException e) {
-            throw new IdInvalidException(e.getMessage());
+            throw new IdInvalidException("Đã vượt quá số lần gửi lại OTP. Vui lòng đợi 30 phút trước khi thử lại.");
         }
 
         ResResendOtpDTO response = new ResResendOtpDTO();
         response.setSuccess(true);
         response.setMessage("Mã OTP mới đã được gửi đến email của bạn.");
-        response.setRemainingAttempts(otpService.getRemainingResendAttempts(email));
+        response.setRemainingAttempts(resent.remainingAttempts());
 
         return ResponseEntity.ok(response);
     }
@@ -188,7 +178,7 @@ public class AuthController {
     @PostMapping("/login")
     @ApiMessage("Đăng nhập thành công")
     public ResponseEntity<ResLoginDTO> login(@Valid @RequestBody ReqLoginDTO loginDTO,
-            HttpServletResponse response) throws IdInvalidException {
+            HttpServletRequest request, HttpServletResponse response) throws IdInvalidException {
         // Get user from database first to perform pre-authentication checks
         User currentUser = userService.handleGetUserByUsername(loginDTO.getUsername());
 
@@ -233,8 +223,8 @@ public class AuthController {
         // Create refresh token
         String refreshToken = authService.createRefreshToken(loginDTO.getUsername(), resLoginDTO);
 
-        // Store refresh token in database
-        userService.updateUserToken(refreshToken, loginDTO.getUsername());
+        // Open a refresh session for this device
+        refreshSessionService.createSession(currentUser, refreshToken, request);
 
         // Set refresh token as HttpOnly cookie
         ResponseCookie refreshCookie = ResponseCookie.from("refresh_token", refreshToken)
@@ -266,11 +256,12 @@ public class AuthController {
             throw new IdInvalidException("Refresh token không hợp lệ");
         }
 
-        // Check if refresh token exists in database
-        User currentUser = userService.getUserByRefreshToken(refreshToken);
-        if (currentUser == null) {
+        // Look up the live session by token hash
+        RefreshSession session = refreshSessionService.findActiveSession(refreshToken);
+        if (session == null) {
             throw new IdInvalidException("Refresh token không hợp lệ");
         }
+        User currentUser = session.getUser();
 
         // Build response DTO
         ResLoginDTO resLoginDTO = new ResLoginDTO();
@@ -284,8 +275,10 @@ public class AuthController {
         // Create new refresh token (token rotation)
         String newRefreshToken = authService.createRefreshToken(currentUser.getEmail(), resLoginDTO);
 
-        // Update stored refresh token in database
-        userService.updateUserToken(newRefreshToken, currentUser.getEmail());
+        // Rotate the session in place; fails if the old token was used concurrently
+        if (!refreshSessionService.rotate(refreshToken, newRefreshToken)) {
+            throw new IdInvalidException("Refresh token không hợp lệ");
+        }
 
         // Update refresh token cookie
         ResponseCookie refreshCookie = ResponseCookie.from("refresh_token", newRefreshToken)
@@ -306,23 +299,9 @@ public class AuthController {
             @CookieValue(name = "refresh_token", defaultValue = "") String refreshToken,
             HttpServletResponse response) throws IdInvalidException {
 
-        // Get user from refresh token (if available)
-        String email = null;
-
-        // Try to get email from SecurityContext first (if user has valid access token)
-        email = SecurityUtil.getCurrentUserLogin().orElse(null);
-
-        // If no access token, try to get email from refresh token
-        if (email == null && !refreshToken.isEmpty()) {
-            User user = userService.getUserByRefreshToken(refreshToken);
-            if (user != null) {
-                email = user.getEmail();
-            }
-        }
-
-        // Clear refresh token from database if we found the user
-        if (email != null) {
-            userService.updateUserToken(null, email);
+        // End only this device's session, other devices stay logged in
+        if (!refreshToken.isEmpty()) {
+            refreshSessionService.revoke(refreshToken);
         }
 
         // Clear refresh token cookie (maxAge=0)
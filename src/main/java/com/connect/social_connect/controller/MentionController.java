@@ -0,0 +1,46 @@
+package com.connect.social_connect.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.connect.social_connect.domain.User;
+import com.connect.social_connect.domain.response.ResMentionDTO;
+import com.connect.social_connect.service.MentionService;
+import com.connect.social_connect.service.UserService;
+import com.connect.social_connect.util.SecurityUtil;
+import com.connect.social_connect.util.UserPrincipal;
+import com.connect.social_connect.util.annotation.ApiMessage;
+
+@RestController
+@RequestMapping("/api/v1/mentions")
+public class MentionController {
+
+    private final MentionService mentionService;
+    private final UserService userService;
+
+    public MentionController(MentionService mentionService, UserService userService) {
+        this.mentionService = mentionService;
+        this.userService = userService;
+    }
+
+    // @mention suggestions for the text typed after '@', called on every keystroke
+    @GetMapping
+    @ApiMessage("Lấy gợi ý nhắc tên thành công")
+    public ResponseEntity<List<ResMentionDTO>> suggest(
+            @RequestParam("q") String prefix,
+            @RequestParam(name = "limit", defaultValue = "8") int limit) {
+        // Viewer id from the token claims, the database only for tokens issued without them
+        Long viewerId = SecurityUtil.getCurrentPrincipal()
+                .map(UserPrincipal::userId)
+                .orElseGet(() -> {
+                    User user = userService.getCurrentUser();
+                    return user != null ? user.getId() : null;
+                });
+        return ResponseEntity.ok(mentionService.suggest(viewerId, prefix, limit));
+    }
+}
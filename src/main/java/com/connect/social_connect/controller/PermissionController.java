@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.connect.social_connect.domain.Permission;
@@ -50,7 +51,13 @@ public class PermissionController {
     @ApiMessage("Lấy danh sách permission thành công")
     public ResponseEntity<ResultPaginationDTO> getAllPermissions(
             @Filter Specification<Permission> spec,
-            Pageable pageable) {
+            Pageable pageable,
+            @RequestParam(name = "cursor", defaultValue = "false") boolean cursor,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "count", defaultValue = "false") boolean count) throws IdInvalidException {
+        if (cursor || after != null) {
+            return ResponseEntity.ok(permissionService.fetchAllPermissionsByCursor(spec, pageable, after, count));
+        }
         return ResponseEntity.ok(permissionService.fetchAllPermissions(spec, pageable));
     }
 
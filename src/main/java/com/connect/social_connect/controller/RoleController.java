@@ -8,17 +8,21 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.connect.social_connect.domain.Role;
 import com.connect.social_connect.domain.request.ReqCreateRoleDTO;
+import com.connect.social_connect.domain.request.ReqRolePermissionsDTO;
 import com.connect.social_connect.domain.request.ReqUpdateRoleDTO;
 import com.connect.social_connect.domain.response.ResRoleDTO;
+import com.connect.social_connect.domain.response.ResRolePermissionsDTO;
 import com.connect.social_connect.domain.response.ResultPaginationDTO;
 import com.connect.social_connect.service.RoleService;
 import com.connect.social_connect.util.annotation.ApiMessage;
@@ -52,7 +56,13 @@ public class RoleController {
     @ApiMessage("Lấy danh sách role thành công")
     public ResponseEntity<ResultPaginationDTO> getAllRoles(
             @Filter Specification<Role> spec,
-            Pageable pageable) {
+            Pageable pageable,
+            @RequestParam(name = "cursor", defaultValue = "false") boolean cursor,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "count", defaultValue = "false") boolean count) throws IdInvalidException {
+        if (cursor || after != null) {
+            return ResponseEntity.ok(roleService.fetchAllRolesByCursor(spec, pageable, after, count));
+        }
         return ResponseEntity.ok(roleService.fetchAllRoles(spec, pageable));
     }
 
@@ -60,11 +70,11 @@ public class RoleController {
     @GetMapping("/{id}")
     @ApiMessage("Lấy thông tin role thành công")
     public ResponseEntity<ResRoleDTO> getRoleById(@PathVariable Long id) throws IdInvalidException {
-        Role role = roleService.fetchRoleById(id);
+        ResRoleDTO role = roleService.fetchRoleDTOById(id);
         if (role == null) {
             throw new IdInvalidException("Role với id = " + id + " không tồn tại");
         }
-        return ResponseEntity.ok(roleService.convertToResRoleDTO(role));
+        return ResponseEntity.ok(role);
     }
 
     // Update role
@@ -94,4 +104,20 @@ public class RoleController {
         Role role = roleService.assignPermissions(id, permissionIds);
         return ResponseEntity.ok(roleService.convertToResRoleDTO(role));
     }
+
+    // Grant permissions to roles incrementally (existing assignments are untouched)
+    @PatchMapping("/permissions/grant")
+    @ApiMessage("Cấp permissions cho role thành công")
+    public ResponseEntity<ResRolePermissionsDTO> grantPermissions(@Valid @RequestBody ReqRolePermissionsDTO dto)
+            throws IdInvalidException {
+        return ResponseEntity.ok(roleService.grantPermissions(dto));
+    }
+
+    // Revoke permissions from roles incrementally
+    @PatchMapping("/permissions/revoke")
+    @ApiMessage("Thu hồi permissions của role thành công")
+    public ResponseEntity<ResRolePermissionsDTO> revokePermissions(@Valid @RequestBody ReqRolePermissionsDTO dto)
+            throws IdInvalidException {
+        return ResponseEntity.ok(roleService.revokePermissions(dto));
+    }
 }
@@ -1,7 +1,10 @@
 package com.connect.social_connect.controller;
 
+import java.util.List;
+
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,17 +12,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.connect.social_connect.domain.User;
 import com.connect.social_connect.domain.request.ReqUpdateProfileDTO;
 import com.connect.social_connect.domain.request.ReqUpdateUserRoleDTO;
+import com.connect.social_connect.domain.response.ResPublicProfileBatchDTO;
 import com.connect.social_connect.domain.response.ResPublicProfileDTO;
 import com.connect.social_connect.domain.response.ResUserDTO;
 import com.connect.social_connect.domain.response.ResUserProfileDTO;
 import com.connect.social_connect.domain.response.ResultPaginationDTO;
+import com.connect.social_connect.service.PublicProfileCache;
 import com.connect.social_connect.service.UserService;
-import com.connect.social_connect.util.SecurityUtil;
 import com.connect.social_connect.util.annotation.ApiMessage;
 import com.connect.social_connect.util.error.IdInvalidException;
 import com.turkraft.springfilter.boot.Filter;
@@ -42,10 +47,7 @@ public class UserController {
     @GetMapping("/me")
     @ApiMessage("Lấy thông tin profile thành công")
     public ResponseEntity<ResUserProfileDTO> getCurrentUserProfile() throws IdInvalidException {
-        String email = SecurityUtil.getCurrentUserLogin()
-                .orElseThrow(() -> new IdInvalidException("Không tìm thấy thông tin người dùng"));
-
-        User user = userService.handleGetUserByUsername(email);
+        User user = userService.getCurrentUser();
         if (user == null) {
             throw new IdInvalidException("Không tìm thấy thông tin người dùng");
         }
@@ -59,10 +61,7 @@ public class UserController {
     @ApiMessage("Cập nhật profile thành công")
     public ResponseEntity<ResUserProfileDTO> updateCurrentUserProfile(
             @Valid @RequestBody ReqUpdateProfileDTO dto) throws IdInvalidException {
-        String email = SecurityUtil.getCurrentUserLogin()
-                .orElseThrow(() -> new IdInvalidException("Không tìm thấy thông tin người dùng"));
-
-        User user = userService.handleGetUserByUsername(email);
+        User user = userService.getCurrentUser();
         if (user == null) {
             throw new IdInvalidException("Không tìm thấy thông tin người dùng");
         }
@@ -71,16 +70,37 @@ public class UserController {
         return ResponseEntity.ok(userService.convertToResUserProfileDTO(updatedUser));
     }
 
+     // Search users by username or display name, prefix and infix matches
+    @GetMapping("/search")
+    @ApiMessage("Tìm kiếm người dùng thành công")
+    public ResponseEntity<List<ResPublicProfileDTO>> searchUsers(
+            @RequestParam("q") String query,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) throws IdInvalidException {
+        return ResponseEntity.ok(userService.searchUsers(query, limit));
+    }
+
+     // Get public profiles of several users, e.g. ?ids=3,1,2
+    @GetMapping("/batch")
+    @ApiMessage("Lấy danh sách public profile thành công")
+    public ResponseEntity<ResPublicProfileBatchDTO> getPublicProfiles(@RequestParam("ids") List<Long> ids)
+            throws IdInvalidException {
+        return ResponseEntity.ok(userService.fetchPublicProfiles(ids));
+    }
+
      // Get public profile by user id
     @GetMapping("/{id}")
     @ApiMessage("Lấy thông tin public profile thành công")
     public ResponseEntity<ResPublicProfileDTO> getPublicProfile(@PathVariable Long id) throws IdInvalidException {
-        User user = userService.fetchUserById(id);
-        if (user == null) {
+        PublicProfileCache.Entry profile = userService.fetchPublicProfile(id);
+        if (profile == null) {
             throw new IdInvalidException("User với id = " + id + " không tồn tại");
         }
 
-        return ResponseEntity.ok(userService.convertToResPublicProfileDTO(user));
+        // Spring answers a matching If-None-Match with a body-less 304 from the ETag header
+        return ResponseEntity.ok()
+                .eTag(profile.etag())
+                .cacheControl(CacheControl.noCache())
+                .body(profile.profile());
     }
 
     //Admin Endpoints
@@ -90,7 +110,13 @@ public class UserController {
     @ApiMessage("Lấy danh sách người dùng thành công")
     public ResponseEntity<ResultPaginationDTO> getAllUsers(
             @Filter Specification<User> spec,
-            Pageable pageable) {
+            Pageable pageable,
+            @RequestParam(name = "cursor", defaultValue = "false") boolean cursor,
+            @RequestParam(name = "after", required = false) String after,
+            @RequestParam(name = "count", defaultValue = "false") boolean count) throws IdInvalidException {
+        if (cursor || after != null) {
+            return ResponseEntity.ok(userService.fetchAllUsersByCursor(spec, pageable, after, count));
+        }
         return ResponseEntity.ok(userService.fetchAllUsers(spec, pageable));
     }
 
@@ -98,12 +124,12 @@ public class UserController {
     @GetMapping("/{id}/admin")
     @ApiMessage("Lấy thông tin chi tiết người dùng thành công")
     public ResponseEntity<ResUserDTO> getUserByIdAdmin(@PathVariable Long id) throws IdInvalidException {
-        User user = userService.fetchUserById(id);
+        ResUserDTO user = userService.fetchUserAdminDTOById(id);
         if (user == null) {
             throw new IdInvalidException("User với id = " + id + " không tồn tại");
         }
 
-        return ResponseEntity.ok(userService.convertToResUserDTO(user));
+        return ResponseEntity.ok(user);
     }
 
      //Update user's role (Admin)
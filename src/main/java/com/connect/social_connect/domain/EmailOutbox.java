@@ -0,0 +1,72 @@
+package com.connect.social_connect.domain;
+
+import java.time.Instant;
+
+import com.connect.social_connect.util.constant.EmailOutboxStatusEnum;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+// Email waiting to be sent; written in the transaction that caused it, deleted once delivered
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, nextAttemptAt")
+})
+@Getter
+@Setter
+public class EmailOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "MEDIUMTEXT")
+    private String htmlBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private EmailOutboxStatusEnum status;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    // When the row may next be claimed; for SENDING rows, when the claim lapses
+    @Column(nullable = false)
+    private Instant nextAttemptAt;
+
+    // Dispatcher holding the claim on a SENDING row
+    @Column(length = 36)
+    private String leaseOwner;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    private Instant createdAt;
+
+    // Lifecycle
+    @PrePersist
+    public void handleBeforeCreate() {
+        this.createdAt = Instant.now();
+        if (this.status == null) {
+            this.status = EmailOutboxStatusEnum.PENDING;
+        }
+        if (this.nextAttemptAt == null) {
+            this.nextAttemptAt = this.createdAt;
+        }
+    }
+}
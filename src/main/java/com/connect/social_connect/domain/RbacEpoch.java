@@ -0,0 +1,27 @@
+package com.connect.social_connect.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+// Single-row counter bumped by every role/permission write, see AuthorizationService
+@Entity
+@Table(name = "rbac_epoch")
+@Getter
+@Setter
+public class RbacEpoch {
+    public static final Long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private long epoch;
+
+    private Instant updatedAt;
+}
@@ -0,0 +1,60 @@
+package com.connect.social_connect.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+@Entity
+@Table(name = "refresh_sessions", indexes = {
+        @Index(name = "idx_refresh_session_token_hash", columnList = "tokenHash", unique = true),
+        @Index(name = "idx_refresh_session_user", columnList = "user_id"),
+        @Index(name = "idx_refresh_session_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+public class RefreshSession {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Hex SHA-256 of the refresh token, the raw token is never stored
+    @Column(nullable = false, columnDefinition = "char(64)")
+    private String tokenHash;
+
+    // Device metadata
+    private String userAgent;
+
+    @Column(length = 45)
+    private String ipAddress;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // Audit fields
+    private Instant createdAt;
+    private Instant lastUsedAt;
+
+    // Relationships
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    // Lifecycle
+    @PrePersist
+    public void handleBeforeCreate() {
+        this.createdAt = Instant.now();
+        this.lastUsedAt = this.createdAt;
+    }
+}
@@ -21,6 +21,7 @@ import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
@@ -44,6 +45,11 @@ public class Role {
     private String description;
     private boolean active;
 
+    // Bumped on every change (including permissions), carried as "rv" in access tokens
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     // Audit fields
     private Instant createdAt;
     private Instant updatedAt;
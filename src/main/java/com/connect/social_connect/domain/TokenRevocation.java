@@ -0,0 +1,27 @@
+package com.connect.social_connect.domain;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+// Per-user access token version, bumped when the user's role changes or the user is deleted
+@Entity
+@Table(name = "token_revocations")
+@Getter
+@Setter
+public class TokenRevocation {
+
+    // No foreign key: the row must outlive a deleted user until their tokens expire
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private long version;
+
+    private Instant revokedAt;
+}
@@ -23,6 +23,7 @@ import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
@@ -31,21 +32,26 @@ import lombok.Setter;
 @Table(name = "users", indexes = {
         @Index(name = "idx_user_username", columnList = "username"),
         @Index(name = "idx_user_email", columnList = "email")
+}, uniqueConstraints = {
+        // Named so duplicate-key errors can be mapped back to the field (see RegistrationService)
+        @UniqueConstraint(name = User.UK_USERNAME, columnNames = "username"),
+        @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email")
 })
 @Getter
 @Setter
 public class User {
+    public static final String UK_USERNAME = "uk_users_username";
+    public static final String UK_EMAIL = "uk_users_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     // Basic fields
     @NotBlank(message = "username không được để trống")
-    @Column(unique = true)
     private String username;
 
     @NotBlank(message = "email không được để trống")
-    @Column(unique = true)
     private String email;
 
     private String passwordHash;
@@ -57,9 +63,6 @@ public class User {
     private String avatarUrl;
     private String coverUrl;
 
-    @Column(length = 2000)
-    private String refreshToken;
-
     @NotNull(message = "authProvider không được để trống")
     @Enumerated(EnumType.STRING)
     private AuthProviderEnum authProvider;
@@ -0,0 +1,20 @@
+package com.connect.social_connect.domain.request;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ReqRolePermissionsDTO {
+    @NotEmpty(message = "Danh sách role không được để trống")
+    @Size(max = 100, message = "Tối đa 100 role mỗi lần")
+    private List<Long> roleIds;
+
+    @NotEmpty(message = "Danh sách permission không được để trống")
+    @Size(max = 1000, message = "Tối đa 1000 permission mỗi lần")
+    private List<Long> permissionIds;
+}
@@ -0,0 +1,15 @@
+package com.connect.social_connect.domain.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ResAvailabilityDTO {
+    // Null when the value was not asked for
+    private Boolean usernameAvailable;
+    private Boolean emailAvailable;
+}
@@ -0,0 +1,15 @@
+package com.connect.social_connect.domain.response;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ResMentionDTO {
+    private Long id;
+    private String username;
+    private String displayName;
+    private String avatarUrl;
+    // Friend, chat co-member or anyone else
+    private String proximity;
+}
@@ -0,0 +1,15 @@
+package com.connect.social_connect.domain.response;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ResPublicProfileBatchDTO {
+    // In the order of the requested ids
+    private List<ResPublicProfileDTO> profiles;
+    // Requested ids with no user
+    private List<Long> missingIds;
+}
@@ -0,0 +1,15 @@
+package com.connect.social_connect.domain.response;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ResRolePermissionsDTO {
+    private List<Long> roleIds;
+    private List<Long> permissionIds;
+    // Number of (role, permission) rows actually added or removed
+    private int changed;
+}
@@ -1,5 +1,7 @@
 package com.connect.social_connect.domain.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.Getter;
 import lombok.Setter;
 
@@ -16,5 +18,12 @@ public class ResultPaginationDTO {
         private int pageSize;
         private int pages;
         private long total;
+
+        // Cursor mode only: token for the next page and whether one exists
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private String next;
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        private Boolean hasNext;
     }
 }
@@ -0,0 +1,20 @@
+package com.connect.social_connect.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.connect.social_connect.domain.ChatMember;
+
+@Repository
+public interface ChatMemberRepository extends JpaRepository<ChatMember, Long> {
+
+    // Users sharing at least one chat with the given user
+    @Query("SELECT DISTINCT other.user.id FROM ChatMember me JOIN ChatMember other ON other.chat = me.chat "
+            + "WHERE me.user.id = :userId AND other.user.id <> :userId")
+    List<Long> findCoMemberIds(@Param("userId") Long userId, Pageable pageable);
+}
@@ -0,0 +1,63 @@
+package com.connect.social_connect.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.connect.social_connect.domain.EmailOutbox;
+import com.connect.social_connect.util.constant.EmailOutboxStatusEnum;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // Rows due for a send: pending ones whose backoff ran out and claims that lapsed
+    @Query("SELECT e.id FROM EmailOutbox e WHERE e.status IN :statuses AND e.nextAttemptAt <= :now "
+            + "ORDER BY e.nextAttemptAt")
+    List<Long> findDueIds(@Param("statuses") List<EmailOutboxStatusEnum> statuses, @Param("now") Instant now,
+            Pageable pageable);
+
+    // Take a due row for this dispatcher until leaseUntil; 0 rows means another dispatcher got it first
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :sending, e.nextAttemptAt = :leaseUntil, e.leaseOwner = :owner "
+            + "WHERE e.id = :id AND e.status <> :dead AND e.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id, @Param("now") Instant now, @Param("owner") String owner,
+            @Param("leaseUntil") Instant leaseUntil, @Param("sending") EmailOutboxStatusEnum sending,
+            @Param("dead") EmailOutboxStatusEnum dead);
+
+    // The statements below only touch a row still under the caller's lease; 0 rows means it lapsed
+    // and another dispatcher has claimed the row since
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.id = :id AND e.leaseOwner = :owner AND e.nextAttemptAt = :leaseUntil")
+    int deleteLeased(@Param("id") Long id, @Param("owner") String owner, @Param("leaseUntil") Instant leaseUntil);
+
+    // Back to pending for a later retry
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :pending, e.attempts = e.attempts + 1, "
+            + "e.nextAttemptAt = :nextAttemptAt, e.lastError = :error, e.leaseOwner = NULL "
+            + "WHERE e.id = :id AND e.leaseOwner = :owner AND e.nextAttemptAt = :leaseUntil")
+    int recordFailure(@Param("id") Long id, @Param("owner") String owner, @Param("leaseUntil") Instant leaseUntil,
+            @Param("pending") EmailOutboxStatusEnum pending, @Param("nextAttemptAt") Instant nextAttemptAt,
+            @Param("error") String error);
+
+    // Kept for inspection without its body, which may hold an OTP code
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutbox e SET e.status = :dead, e.attempts = e.attempts + 1, e.htmlBody = '', "
+            + "e.nextAttemptAt = :now, e.lastError = :error, e.leaseOwner = NULL "
+            + "WHERE e.id = :id AND e.leaseOwner = :owner AND e.nextAttemptAt = :leaseUntil")
+    int deadLetter(@Param("id") Long id, @Param("owner") String owner, @Param("leaseUntil") Instant leaseUntil,
+            @Param("dead") EmailOutboxStatusEnum dead, @Param("now") Instant now, @Param("error") String error);
+
+    long countByStatus(EmailOutboxStatusEnum status);
+}
@@ -0,0 +1,23 @@
+package com.connect.social_connect.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.connect.social_connect.domain.Friendship;
+import com.connect.social_connect.util.constant.FriendshipStatusEnum;
+
+@Repository
+public interface FriendshipRepository extends JpaRepository<Friendship, Long> {
+
+    // Ids of the other side of the user's friendships in the given status, both directions
+    @Query("SELECT CASE WHEN f.requester.id = :userId THEN f.receiver.id ELSE f.requester.id END "
+            + "FROM Friendship f WHERE (f.requester.id = :userId OR f.receiver.id = :userId) "
+            + "AND f.status = :status AND (f.isDeleted IS NULL OR f.isDeleted = false)")
+    List<Long> findFriendIds(@Param("userId") Long userId, @Param("status") FriendshipStatusEnum status,
+            Pageable pageable);
+}
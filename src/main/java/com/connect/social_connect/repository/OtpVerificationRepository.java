@@ -1,9 +1,14 @@
 package com.connect.social_connect.repository;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.connect.social_connect.domain.OtpVerification;
 
@@ -12,4 +17,43 @@ public interface OtpVerificationRepository extends JpaRepository<OtpVerification
     Optional<OtpVerification> findByEmail(String email);
 
     void deleteByEmail(String email);
+
+    // Consume a matching, live, unlocked code; 1 row means verified
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OtpVerification o WHERE o.email = :email AND o.otpCode = :code "
+            + "AND o.expiresAt >= :now AND (o.lockedUntil IS NULL OR o.lockedUntil <= :now)")
+    int deleteMatching(@Param("email") String email, @Param("code") String code, @Param("now") Instant now);
+
+    // Count a failed attempt on a live, unlocked code and lock it on the last allowed one;
+    // lockedUntil is assigned first so it sees the old attemptCount on every database
+    @Transactional
+    @Modifying
+    @Query("UPDATE OtpVerification o SET "
+            + "o.lockedUntil = CASE WHEN o.attemptCount + 1 >= :maxAttempts THEN :lockedUntil ELSE o.lockedUntil END, "
+            + "o.attemptCount = o.attemptCount + 1 "
+            + "WHERE o.email = :email AND o.expiresAt >= :now AND (o.lockedUntil IS NULL OR o.lockedUntil <= :now)")
+    int recordFailedAttempt(@Param("email") String email, @Param("now") Instant now,
+            @Param("maxAttempts") int maxAttempts, @Param("lockedUntil") Instant lockedUntil);
+
+    // Swap in a new code while resends remain; 0 rows means no OTP or limit reached
+    @Transactional
+    @Modifying
+    @Query("UPDATE OtpVerification o SET o.otpCode = :code, o.expiresAt = :expiresAt, o.attemptCount = 0, "
+            + "o.resendCount = o.resendCount + 1, o.lockedUntil = NULL "
+            + "WHERE o.email = :email AND o.resendCount < :maxResend")
+    int resend(@Param("email") String email, @Param("code") String code, @Param("expiresAt") Instant expiresAt,
+            @Param("maxResend") int maxResend);
+
+    // One bounded chunk of dead rows: code expired, no lock running and past the resend
+    // cooldown (so deleting cannot reset the resend limit); each call is its own short transaction
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM otp_verifications WHERE expires_at < :now AND created_at < :issuedBefore "
+            + "AND (locked_until IS NULL OR locked_until < :now) LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("issuedBefore") Instant issuedBefore,
+            @Param("limit") int limit);
+
+    @Query("SELECT o.resendCount FROM OtpVerification o WHERE o.email = :email")
+    Optional<Integer> findResendCount(@Param("email") String email);
 }
@@ -1,9 +1,14 @@
 package com.connect.social_connect.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.connect.social_connect.domain.Permission;
@@ -14,4 +19,17 @@ public interface PermissionRepository extends JpaRepository<Permission, Long>, J
     boolean existsByApiPathAndMethod(String apiPath, String method);
 
     List<Permission> findByIdIn(List<Long> ids);
+
+    long countByIdIn(Collection<Long> ids);
+
+    // Bump the version of every role holding the permission, before its join rows are removed
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE roles SET version = version + 1, updated_at = :now "
+            + "WHERE id IN (SELECT pr.role_id FROM permission_role pr WHERE pr.permission_id = :permissionId)",
+            nativeQuery = true)
+    int bumpRoleVersionsByPermissionId(@Param("permissionId") Long permissionId, @Param("now") Instant now);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM permission_role WHERE permission_id = :permissionId", nativeQuery = true)
+    int deleteRoleLinks(@Param("permissionId") Long permissionId);
 }
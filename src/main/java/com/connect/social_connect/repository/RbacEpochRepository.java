@@ -0,0 +1,26 @@
+package com.connect.social_connect.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.connect.social_connect.domain.RbacEpoch;
+
+@Repository
+public interface RbacEpochRepository extends JpaRepository<RbacEpoch, Long> {
+
+    // Primary key probe, cheap enough to poll
+    @Query("SELECT e.epoch FROM RbacEpoch e WHERE e.id = :id")
+    Long findEpoch(@Param("id") Long id);
+
+    // Atomic increment in the caller's transaction, the row lock orders concurrent writers
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE RbacEpoch e SET e.epoch = e.epoch + 1, e.updatedAt = :now WHERE e.id = :id")
+    int increment(@Param("id") Long id, @Param("now") Instant now);
+}
@@ -0,0 +1,44 @@
+package com.connect.social_connect.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.connect.social_connect.domain.RefreshSession;
+
+@Repository
+public interface RefreshSessionRepository extends JpaRepository<RefreshSession, Long> {
+
+    @Query("SELECT s FROM RefreshSession s JOIN FETCH s.user u LEFT JOIN FETCH u.role WHERE s.tokenHash = :tokenHash")
+    Optional<RefreshSession> findByTokenHash(@Param("tokenHash") String tokenHash);
+
+    // Swap the token of a live session in place; 0 rows means it was already rotated or expired
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshSession s SET s.tokenHash = :newHash, s.expiresAt = :expiresAt, s.lastUsedAt = :now "
+            + "WHERE s.tokenHash = :oldHash AND s.expiresAt > :now")
+    int rotate(@Param("oldHash") String oldHash, @Param("newHash") String newHash,
+            @Param("expiresAt") Instant expiresAt, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshSession s WHERE s.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshSession s WHERE s.user.id = :userId")
+    int deleteByUserId(@Param("userId") Long userId);
+
+    // One bounded chunk of expired sessions, each call is its own short transaction
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM refresh_sessions WHERE expires_at < :now LIMIT :limit", nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("limit") int limit);
+}
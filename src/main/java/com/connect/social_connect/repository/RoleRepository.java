@@ -1,7 +1,12 @@
 package com.connect.social_connect.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -17,4 +22,43 @@ public interface RoleRepository extends JpaRepository<Role, Long>, JpaSpecificat
 
     @Query("SELECT COUNT(u) FROM User u WHERE u.role.id = :roleId")
     long countUsersByRoleId(@Param("roleId") Long roleId);
+
+    // (roleId, permissionId) pairs of the permission_role join table
+    @Query("SELECT r.id, p.id FROM Role r JOIN r.permissions p")
+    List<Object[]> findAllRolePermissionIds();
+
+    // (roleId, version) pairs of all roles
+    @Query("SELECT r.id, r.version FROM Role r")
+    List<Object[]> findAllRoleVersions();
+
+    long countByIdIn(Collection<Long> ids);
+
+    // Permissions of a whole page of roles in one query, as
+    // (roleId, id, name, apiPath, method, module, createdAt, updatedAt) rows
+    @Query("SELECT r.id, p.id, p.name, p.apiPath, p.method, p.module, p.createdAt, p.updatedAt "
+            + "FROM Role r JOIN r.permissions p WHERE r.id IN :roleIds ORDER BY p.id")
+    List<Object[]> findPermissionRowsByRoleIds(@Param("roleIds") Collection<Long> roleIds);
+
+    // Add every missing (role, permission) pair in one statement; permission_role
+    // has no unique key, so duplicates are filtered with NOT EXISTS instead of INSERT IGNORE
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO permission_role (role_id, permission_id) "
+            + "SELECT r.id, p.id FROM roles r JOIN permissions p ON p.id IN (:permissionIds) "
+            + "WHERE r.id IN (:roleIds) AND NOT EXISTS ("
+            + "SELECT 1 FROM permission_role pr WHERE pr.role_id = r.id AND pr.permission_id = p.id)",
+            nativeQuery = true)
+    int grantPermissions(@Param("roleIds") Collection<Long> roleIds,
+            @Param("permissionIds") Collection<Long> permissionIds);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM permission_role WHERE role_id IN (:roleIds) AND permission_id IN (:permissionIds)",
+            nativeQuery = true)
+    int revokePermissions(@Param("roleIds") Collection<Long> roleIds,
+            @Param("permissionIds") Collection<Long> permissionIds);
+
+    // Bump the optimistic-lock version so tokens carrying the old one trigger a refresh
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE roles SET version = version + 1, updated_at = :now WHERE id IN (:roleIds)",
+            nativeQuery = true)
+    int bumpVersions(@Param("roleIds") Collection<Long> roleIds, @Param("now") Instant now);
 }
@@ -0,0 +1,30 @@
+package com.connect.social_connect.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.connect.social_connect.domain.TokenRevocation;
+
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, Long> {
+
+    @Query("SELECT r.version FROM TokenRevocation r WHERE r.userId = :userId")
+    Long findVersion(@Param("userId") Long userId);
+
+    // Revocations recent enough that tokens issued before them may still be live
+    List<TokenRevocation> findByRevokedAtAfter(Instant since);
+
+    // Insert version 1 or increment, in the caller's transaction
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO token_revocations (user_id, version, revoked_at) VALUES (:userId, 1, :now) "
+            + "ON DUPLICATE KEY UPDATE version = version + 1, revoked_at = :now", nativeQuery = true)
+    int bump(@Param("userId") Long userId, @Param("now") Instant now);
+}
@@ -0,0 +1,11 @@
+package com.connect.social_connect.repository;
+
+import java.time.Instant;
+
+import com.connect.social_connect.util.constant.AuthProviderEnum;
+
+// Columns of the admin user listing and detail view, filled by constructor expression
+public record UserAdminRow(Long id, String username, String email, String displayName, String avatarUrl,
+        AuthProviderEnum authProvider, Boolean isEmailVerified, Instant createdAt, Instant updatedAt,
+        Long roleId, String roleName) {
+}
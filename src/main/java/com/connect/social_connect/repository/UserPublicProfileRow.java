@@ -0,0 +1,8 @@
+package com.connect.social_connect.repository;
+
+import java.time.Instant;
+
+// Public profile columns of a user plus updatedAt for the ETag, filled by constructor expression
+public record UserPublicProfileRow(Long id, String username, String displayName, String bio, String avatarUrl,
+        String coverUrl, Instant createdAt, Instant updatedAt) {
+}
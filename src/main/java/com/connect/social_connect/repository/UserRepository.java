@@ -1,13 +1,21 @@
 package com.connect.social_connect.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.connect.social_connect.domain.User;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User>,
+        UserRepositoryCustom {
 
     User findByEmail(String email);
 
@@ -15,5 +23,24 @@ public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificat
 
     boolean existsByUsername(String username);
 
-    User findByRefreshToken(String token);
+    // Usernames starting with a prefix; the pattern has no leading wildcard, so this is an index range scan
+    @Query("SELECT u.username FROM User u WHERE u.username LIKE :pattern")
+    List<String> findUsernamesLike(@Param("pattern") String pattern);
+
+    // Same columns as findAdminRows, for a single user
+    @Query("SELECT new com.connect.social_connect.repository.UserAdminRow(u.id, u.username, u.email, "
+            + "u.displayName, u.avatarUrl, u.authProvider, u.isEmailVerified, u.createdAt, u.updatedAt, "
+            + "r.id, r.name) FROM User u LEFT JOIN u.role r WHERE u.id = :id")
+    Optional<UserAdminRow> findAdminRowById(@Param("id") Long id);
+
+    // Public profiles of several users in one query
+    @Query("SELECT new com.connect.social_connect.repository.UserPublicProfileRow(u.id, u.username, "
+            + "u.displayName, u.bio, u.avatarUrl, u.coverUrl, u.createdAt, u.updatedAt) "
+            + "FROM User u WHERE u.id IN :ids")
+    List<UserPublicProfileRow> findPublicProfileRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset batch for the search and mention index loads
+    @Query("SELECT new com.connect.social_connect.repository.UserSearchRow(u.id, u.username, u.displayName, "
+            + "u.avatarUrl) FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserSearchRow> findSearchRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
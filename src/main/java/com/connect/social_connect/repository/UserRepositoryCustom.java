@@ -0,0 +1,13 @@
+package com.connect.social_connect.repository;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.connect.social_connect.domain.User;
+
+public interface UserRepositoryCustom {
+
+    // Admin listing columns only
+    Page<UserAdminRow> findAdminRows(Specification<User> spec, Pageable pageable);
+}
@@ -0,0 +1,85 @@
+package com.connect.social_connect.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import com.connect.social_connect.domain.Role;
+import com.connect.social_connect.domain.User;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Projection query behind the admin user listing. Selects only the columns of
+ * ResUserDTO and the role name through a LEFT JOIN in the same statement, so no
+ * User entity (TEXT bio, cover, eager Role) is hydrated or tracked by the
+ * persistence context. The @Filter specification is applied to the same root.
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    public UserRepositoryCustomImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public Page<UserAdminRow> findAdminRows(Specification<User> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<UserAdminRow> query = cb.createQuery(UserAdminRow.class);
+        Root<User> user = query.from(User.class);
+        Join<User, Role> role = user.join("role", JoinType.LEFT);
+        query.select(cb.construct(UserAdminRow.class,
+                user.get("id"), user.get("username"), user.get("email"), user.get("displayName"),
+                user.get("avatarUrl"), user.get("authProvider"), user.get("isEmailVerified"),
+                user.get("createdAt"), user.get("updatedAt"), role.get("id"), role.get("name")));
+        Predicate where = toPredicate(spec, user, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), user, cb));
+        }
+
+        TypedQuery<UserAdminRow> typed = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typed.setFirstResult((int) pageable.getOffset());
+            typed.setMaxResults(pageable.getPageSize());
+        }
+        List<UserAdminRow> rows = typed.getResultList();
+
+        // COUNT is skipped when the page itself tells the total
+        return PageableExecutionUtils.getPage(rows, pageable, () -> count(spec));
+    }
+
+    private long count(Specification<User> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<User> user = query.from(User.class);
+        Predicate where = toPredicate(spec, user, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.select(query.isDistinct() ? cb.countDistinct(user) : cb.count(user));
+        // A count needs no ORDER BY even if the specification added one
+        query.orderBy(List.of());
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static Predicate toPredicate(Specification<User> spec, Root<User> root, CriteriaQuery<?> query,
+            CriteriaBuilder cb) {
+        return spec != null ? spec.toPredicate(root, query, cb) : null;
+    }
+}
@@ -0,0 +1,5 @@
+package com.connect.social_connect.repository;
+
+// Columns the in-memory search and mention indexes keep per user, filled by constructor expression
+public record UserSearchRow(Long id, String username, String displayName, String avatarUrl) {
+}
@@ -2,6 +2,7 @@ package com.connect.social_connect.service;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.UUID;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
@@ -11,13 +12,15 @@ import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwsHeader;
 import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
 import org.springframework.security.oauth2.jwt.JwtException;
-import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.stereotype.Service;
 
+import com.connect.social_connect.config.JwtConfig;
 import com.connect.social_connect.domain.response.ResLoginDTO;
+import com.connect.social_connect.util.SecurityUtil;
 import com.nimbusds.jose.util.Base64;
 
 @Service
@@ -35,9 +38,12 @@ public class AuthService {
     private long refreshTokenExpiration;
 
     private final JwtEncoder jwtEncoder;
+    private final AuthorizationService authorizationService;
+    private volatile JwtDecoder refreshTokenDecoder;
 
-    public AuthService(JwtEncoder jwtEncoder) {
+    public AuthService(JwtEncoder jwtEncoder, AuthorizationService authorizationService) {
         this.jwtEncoder = jwtEncoder;
+        this.authorizationService = authorizationService;
     }
 
     // Create access token
@@ -45,12 +51,26 @@ public class AuthService {
         Instant now = Instant.now();
         Instant validity = now.plus(accessTokenExpiration, ChronoUnit.SECONDS);
 
-        JwtClaimsSet claims = JwtClaimsSet.builder()
+        JwtClaimsSet.Builder builder = JwtClaimsSet.builder()
                 .issuedAt(now)
                 .expiresAt(validity)
                 .subject(email)
-                .claim("user", dto.getUser())
-                .build();
+                .claim("user", dto.getUser());
+
+        // Numeric identity claims so requests can be authorized without loading the user
+        ResLoginDTO.UserLogin user = dto.getUser();
+        if (user != null && user.getId() != null) {
+            builder.claim(SecurityUtil.CLAIM_USER_ID, user.getId());
+            if (user.getRole() != null && user.getRole().getId() != null) {
+                Long roleId = user.getRole().getId();
+                builder.claim(SecurityUtil.CLAIM_ROLE_ID, roleId);
+                builder.claim(SecurityUtil.CLAIM_ROLE_VERSION, authorizationService.getRoleVersion(roleId));
+            }
+            builder.claim(SecurityUtil.CLAIM_RBAC_EPOCH, authorizationService.getEpoch());
+            builder.claim(SecurityUtil.CLAIM_TOKEN_VERSION, authorizationService.getTokenVersion(user.getId()));
+        }
+
+        JwtClaimsSet claims = builder.build();
 
         JwtEncoderParameters jwtEncoderParameters = JwtEncoderParameters.from(
                 JwsHeader.with(JWT_ALGORITHM).build(),
@@ -68,6 +88,8 @@ public class AuthService {
                 .issuedAt(now)
                 .expiresAt(validity)
                 .subject(email)
+                // Unique per login so concurrent sessions never share a token hash
+                .id(UUID.randomUUID().toString())
                 .claim("user", dto.getUser())
                 .build();
 
@@ -81,16 +103,28 @@ public class AuthService {
     // Validate and decode refresh token
     public Jwt checkValidRefreshToken(String token) {
         try {
-            SecretKey secretKey = getSecretKey();
-            NimbusJwtDecoder jwtDecoder = NimbusJwtDecoder.withSecretKey(secretKey)
-                    .macAlgorithm(JWT_ALGORITHM)
-                    .build();
-            return jwtDecoder.decode(token);
+            return getRefreshTokenDecoder().decode(token);
         } catch (JwtException e) {
             throw new JwtException("Refresh token không hợp lệ: " + e.getMessage());
         }
     }
 
+    // Refresh tokens are single-use, so they bypass the verified-token cache
+    // but reuse one prebuilt decoder instead of building it per call
+    private JwtDecoder getRefreshTokenDecoder() {
+        JwtDecoder decoder = refreshTokenDecoder;
+        if (decoder == null) {
+            synchronized (this) {
+                decoder = refreshTokenDecoder;
+                if (decoder == null) {
+                    decoder = JwtConfig.buildDecoder(getSecretKey());
+                    refreshTokenDecoder = decoder;
+                }
+            }
+        }
+        return decoder;
+    }
+
     // Get secret key from base64 encoded string
     private SecretKey getSecretKey() {
         byte[] keyBytes = Base64.from(jwtKey).decode();
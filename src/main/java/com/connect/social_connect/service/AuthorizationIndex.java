@@ -0,0 +1,125 @@
+package com.connect.social_connect.service;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.connect.social_connect.domain.Permission;
+
+/**
+ * Immutable, compiled view of the permission table.
+ * Every (method, apiPath) pair is interned and mapped to a dense bit, and each
+ * role keeps a BitSet of the bits it is granted, so a check is two hash lookups
+ * and a bit test.
+ */
+public final class AuthorizationIndex {
+
+    public static final AuthorizationIndex EMPTY = new AuthorizationIndex(-1, Map.of(), Map.of(), Map.of(), 0);
+
+    // RBAC epoch read before the data was loaded
+    private final long epoch;
+
+    // method -> apiPath -> bit
+    private final Map<String, Map<String, Integer>> routes;
+    private final Map<Long, BitSet> roleGrants;
+    private final Map<Long, Long> roleVersions;
+    private final int routeCount;
+
+    private AuthorizationIndex(long epoch, Map<String, Map<String, Integer>> routes, Map<Long, BitSet> roleGrants,
+            Map<Long, Long> roleVersions, int routeCount) {
+        this.epoch = epoch;
+        this.routes = routes;
+        this.roleGrants = roleGrants;
+        this.roleVersions = roleVersions;
+        this.routeCount = routeCount;
+    }
+
+    /**
+     * Compile the index from all permissions, the (roleId, permissionId) rows
+     * of the permission_role join table and the (roleId, version) of every role,
+     * all read at or after the given epoch.
+     */
+    public static AuthorizationIndex compile(long epoch, List<Permission> permissions,
+            List<Object[]> rolePermissionIds, List<Object[]> roleVersionRows) {
+        Map<String, Map<String, Integer>> routes = new HashMap<>();
+        Map<Long, Integer> bitByPermissionId = new HashMap<>();
+        int nextBit = 0;
+
+        for (Permission permission : permissions) {
+            if (permission.getApiPath() == null || permission.getMethod() == null) {
+                continue;
+            }
+            Map<String, Integer> byPath = routes.computeIfAbsent(permission.getMethod().intern(),
+                    method -> new HashMap<>());
+            Integer bit = byPath.get(permission.getApiPath());
+            if (bit == null) {
+                bit = nextBit++;
+                byPath.put(permission.getApiPath().intern(), bit);
+            }
+            bitByPermissionId.put(permission.getId(), bit);
+        }
+
+        final int routeCount = nextBit;
+        Map<Long, BitSet> roleGrants = new HashMap<>();
+        for (Object[] row : rolePermissionIds) {
+            Integer bit = bitByPermissionId.get((Long) row[1]);
+            if (bit == null) {
+                continue;
+            }
+            roleGrants.computeIfAbsent((Long) row[0], roleId -> new BitSet(routeCount)).set(bit);
+        }
+
+        Map<Long, Long> roleVersions = new HashMap<>();
+        for (Object[] row : roleVersionRows) {
+            roleVersions.put((Long) row[0], row[1] != null ? (Long) row[1] : 0L);
+        }
+
+        Map<String, Map<String, Integer>> frozenRoutes = new HashMap<>();
+        routes.forEach((method, byPath) -> frozenRoutes.put(method, Map.copyOf(byPath)));
+        return new AuthorizationIndex(epoch, Map.copyOf(frozenRoutes), Map.copyOf(roleGrants), Map.copyOf(roleVersions),
+                routeCount);
+    }
+
+    // Bit of the route, or -1 when no permission is registered for it
+    public int routeOf(String method, String apiPath) {
+        if (method == null || apiPath == null) {
+            return -1;
+        }
+        Map<String, Integer> byPath = routes.get(method);
+        if (byPath == null) {
+            return -1;
+        }
+        Integer bit = byPath.get(apiPath);
+        return bit != null ? bit : -1;
+    }
+
+    public boolean isGranted(Long roleId, int route) {
+        if (roleId == null || route < 0) {
+            return false;
+        }
+        BitSet grants = roleGrants.get(roleId);
+        return grants != null && grants.get(route);
+    }
+
+    // Role version the index was compiled from, -1 for an unknown role
+    public long getRoleVersion(Long roleId) {
+        if (roleId == null) {
+            return -1;
+        }
+        Long version = roleVersions.get(roleId);
+        return version != null ? version : -1;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    public int getRouteCount() {
+        return routeCount;
+    }
+
+    public int getRoleCount() {
+        return roleGrants.size();
+    }
+}
@@ -0,0 +1,251 @@
+package com.connect.social_connect.service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.connect.social_connect.domain.Permission;
+import com.connect.social_connect.domain.RbacEpoch;
+import com.connect.social_connect.domain.TokenRevocation;
+import com.connect.social_connect.repository.PermissionRepository;
+import com.connect.social_connect.repository.RbacEpochRepository;
+import com.connect.social_connect.repository.RoleRepository;
+import com.connect.social_connect.repository.TokenRevocationRepository;
+import com.connect.social_connect.util.UserPrincipal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Holds the compiled AuthorizationIndex used by PermissionInterceptor.
+ * Every role/permission write bumps a persisted RBAC epoch; the index remembers
+ * the epoch it was built from and is rebuilt (and swapped in atomically) only
+ * when the epoch moves, so permission checks never hit the database.
+ *
+ * Access token revocations (role change, deletion) ride the same path: they
+ * bump the epoch and are loaded with the index, so every node sees them after
+ * its next rebuild, at most one epoch poll after the commit.
+ */
+@Service
+@Slf4j
+public class AuthorizationService {
+
+    // Minimum gap between rebuilds forced by a token carrying a newer role version
+    private static final long STALE_REBUILD_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final PermissionRepository permissionRepository;
+    private final RoleRepository roleRepository;
+    private final RbacEpochRepository rbacEpochRepository;
+    private final TokenRevocationRepository tokenRevocationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicReference<AuthorizationIndex> index = new AtomicReference<>();
+    private volatile long lastRebuildNanos;
+
+    // userId -> token version; tokens carrying a lower version are revoked
+    private volatile Map<Long, Long> revokedTokenVersions = Map.of();
+
+    @Value("${app.jwt.access-token-validity-in-seconds}")
+    private long accessTokenValidity;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Timer rebuildTimer;
+
+    public AuthorizationService(PermissionRepository permissionRepository, RoleRepository roleRepository,
+            RbacEpochRepository rbacEpochRepository, TokenRevocationRepository tokenRevocationRepository,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.permissionRepository = permissionRepository;
+        this.roleRepository = roleRepository;
+        this.rbacEpochRepository = rbacEpochRepository;
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.eventPublisher = eventPublisher;
+
+        this.hitCounter = Counter.builder("authorization.index.lookups")
+                .description("Permission checks whose route is registered in the index")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("authorization.index.lookups")
+                .description("Permission checks whose route is not registered in the index")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("authorization.index.rebuild")
+                .description("Time spent compiling the authorization index")
+                .register(meterRegistry);
+        Gauge.builder("authorization.index.routes", index, ref -> {
+            AuthorizationIndex current = ref.get();
+            return current != null ? current.getRouteCount() : 0;
+        }).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        ensureEpochRow();
+        rebuild();
+    }
+
+    // Check whether the role may call the given route (best matching pattern)
+    public boolean isAllowed(Long roleId, String method, String apiPath) {
+        AuthorizationIndex current = getIndex();
+        int route = current.routeOf(method, apiPath);
+        if (route < 0) {
+            missCounter.increment();
+            return false;
+        }
+        hitCounter.increment();
+        return current.isGranted(roleId, route);
+    }
+
+    // Current version of the role, as embedded in access tokens
+    public long getRoleVersion(Long roleId) {
+        return Math.max(0L, getIndex().getRoleVersion(roleId));
+    }
+
+    // Epoch the current index was built from, embedded in access tokens
+    public long getEpoch() {
+        return Math.max(0L, getIndex().getEpoch());
+    }
+
+    /**
+     * A token carrying a newer epoch or role version than the index means RBAC
+     * was changed on another node: rebuild now, at most once per interval,
+     * instead of waiting for the next poll.
+     */
+    public void refreshIfStale(UserPrincipal principal) {
+        AuthorizationIndex current = getIndex();
+        // An unknown (deleted) role is -1 and would never catch up; a role new to this node comes with a newer epoch
+        long knownRoleVersion = principal.roleId() != null ? current.getRoleVersion(principal.roleId()) : -1L;
+        boolean stale = principal.rbacEpoch() > current.getEpoch()
+                || (knownRoleVersion >= 0 && principal.roleVersion() > knownRoleVersion);
+        if (!stale) {
+            return;
+        }
+        if (System.nanoTime() - lastRebuildNanos < STALE_REBUILD_INTERVAL_NANOS) {
+            return;
+        }
+        rebuild();
+    }
+
+    // Token version to embed in the user's next access token
+    public long getTokenVersion(Long userId) {
+        Long version = tokenRevocationRepository.findVersion(userId);
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * Revoke the user's access tokens (role changed or user deleted) in the
+     * caller's transaction, so the revocation commits with the change itself.
+     */
+    @Transactional
+    public void revokeTokens(Long userId) {
+        tokenRevocationRepository.bump(userId, Instant.now());
+        recordChange();
+    }
+
+    public boolean isRevoked(UserPrincipal principal) {
+        Long version = revokedTokenVersions.get(principal.userId());
+        return version != null && principal.tokenVersion() < version;
+    }
+
+    public AuthorizationIndex getIndex() {
+        AuthorizationIndex current = index.get();
+        if (current == null) {
+            rebuild();
+            current = index.get();
+        }
+        return current;
+    }
+
+    /**
+     * Bump the RBAC epoch inside the caller's write transaction, so the new
+     * epoch becomes visible to other nodes exactly when the change commits.
+     */
+    @Transactional
+    public void recordChange() {
+        if (rbacEpochRepository.increment(RbacEpoch.SINGLETON_ID, Instant.now()) == 0) {
+            ensureEpochRow();
+            rbacEpochRepository.increment(RbacEpoch.SINGLETON_ID, Instant.now());
+        }
+        Long epoch = rbacEpochRepository.findEpoch(RbacEpoch.SINGLETON_ID);
+        eventPublisher.publishEvent(new RbacChangedEvent(epoch != null ? epoch : 0L));
+    }
+
+    // Local change feed: rebuild once the write is committed (or right away outside a transaction)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRbacChanged(RbacChangedEvent event) {
+        if (event.epoch() > getIndex().getEpoch()) {
+            rebuild();
+        }
+    }
+
+    // Changes committed by other nodes are picked up by comparing one primary-key read
+    @Scheduled(fixedDelayString = "${app.rbac.epoch-poll-interval-ms:5000}")
+    public void pollEpoch() {
+        AuthorizationIndex current = index.get();
+        if (current == null) {
+            return;
+        }
+        Long epoch = rbacEpochRepository.findEpoch(RbacEpoch.SINGLETON_ID);
+        if (epoch != null && epoch > current.getEpoch()) {
+            rebuild();
+        }
+    }
+
+    // Compile a fresh index from the database and swap it in
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+
+        // Read the epoch first: a write committed during the load leaves the index
+        // at an older epoch, so the next poll rebuilds again
+        Long epoch = rbacEpochRepository.findEpoch(RbacEpoch.SINGLETON_ID);
+        List<Permission> permissions = permissionRepository.findAll();
+        List<Object[]> rolePermissionIds = roleRepository.findAllRolePermissionIds();
+        List<Object[]> roleVersions = roleRepository.findAllRoleVersions();
+        Map<Long, Long> revoked = new HashMap<>();
+        for (TokenRevocation revocation : tokenRevocationRepository
+                .findByRevokedAtAfter(Instant.now().minusSeconds(accessTokenValidity))) {
+            revoked.put(revocation.getUserId(), revocation.getVersion());
+        }
+        AuthorizationIndex next = AuthorizationIndex.compile(epoch != null ? epoch : 0L, permissions,
+                rolePermissionIds, roleVersions);
+        revokedTokenVersions = revoked;
+        index.set(next);
+        lastRebuildNanos = System.nanoTime();
+
+        long elapsed = System.nanoTime() - start;
+        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Authorization index rebuilt at epoch {}: {} routes, {} roles in {} ms", next.getEpoch(),
+                next.getRouteCount(), next.getRoleCount(), TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    // Create the epoch row on first start; another node may win the insert
+    private void ensureEpochRow() {
+        if (rbacEpochRepository.existsById(RbacEpoch.SINGLETON_ID)) {
+            return;
+        }
+        RbacEpoch row = new RbacEpoch();
+        row.setId(RbacEpoch.SINGLETON_ID);
+        row.setEpoch(0L);
+        row.setUpdatedAt(Instant.now());
+        try {
+            rbacEpochRepository.saveAndFlush(row);
+        } catch (DataIntegrityViolationException e) {
+            log.debug("RBAC epoch row already created by another node");
+        }
+    }
+}
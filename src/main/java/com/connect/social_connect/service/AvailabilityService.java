@@ -0,0 +1,207 @@
+package com.connect.social_connect.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.connect.social_connect.domain.User;
+import com.connect.social_connect.repository.UserRepository;
+import com.connect.social_connect.util.BloomFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Username / email availability from Bloom filters of the taken values; only a
+ * possible hit is confirmed with the indexed exists query. The filters are per
+ * node: users saved here are added right away, users saved on other nodes are
+ * picked up by a scheduled read of the rows past the highest id seen. A
+ * negative answer therefore skips the database only while the last refresh is
+ * at most max-staleness old, and a value created elsewhere within that window
+ * can still be reported free; the unique constraints reject it at sign-up.
+ *
+ * Keys are folded like the accent- and case-insensitive column collation (see
+ * key). Deleted users stay in the filters, which only costs a query. Until the
+ * startup load finishes every check goes to the database.
+ */
+@Service
+@Slf4j
+public class AvailabilityService {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    // Letters MySQL's *_ai_ci collations compare equal to ASCII sequences that NFKD does not produce
+    private static final String[][] COLLATION_FOLDS = {
+            { "ß", "ss" }, { "æ", "ae" }, { "œ", "oe" }, { "ø", "o" }, { "đ", "d" }, { "ł", "l" } };
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.availability.expected-users:1000000}")
+    private long expectedUsers;
+
+    @Value("${app.availability.false-positive-rate:0.001}")
+    private double falsePositiveRate;
+
+    @Value("${app.availability.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    @Value("${app.availability.max-staleness-ms:15000}")
+    private long maxStalenessMs;
+
+    // Ids re-read below the highest one seen, for rows committed out of id order
+    @Value("${app.availability.refresh-overlap-ids:1000}")
+    private long refreshOverlapIds;
+
+    private volatile BloomFilter usernames;
+    private volatile BloomFilter emails;
+    private volatile boolean ready;
+    private volatile long refreshedAtNanos;
+    private long lastSeenId;
+
+    public AvailabilityService(UserRepository userRepository, DataSource dataSource, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isUsernameTaken(String username) {
+        String key = key(username);
+        if (key != null && trustsNegatives() && !usernames.mightContain(key)) {
+            record("username", "bloom-negative");
+            return false;
+        }
+        boolean taken = userRepository.existsByUsername(username);
+        record("username", taken ? "db-hit" : "db-miss");
+        return taken;
+    }
+
+    public boolean isEmailTaken(String email) {
+        String key = key(email);
+        if (key != null && trustsNegatives() && !emails.mightContain(key)) {
+            record("email", "bloom-negative");
+            return false;
+        }
+        boolean taken = userRepository.existsByEmail(email);
+        record("email", taken ? "db-hit" : "db-miss");
+        return taken;
+    }
+
+    // Called after a user is saved; safe during a load or refresh since adds are lock-free
+    public void recordUser(User user) {
+        BloomFilter currentUsernames = usernames;
+        BloomFilter currentEmails = emails;
+        if (user == null || currentUsernames == null) {
+            return;
+        }
+        if (user.getUsername() != null) {
+            currentUsernames.put(fold(user.getUsername()));
+        }
+        if (user.getEmail() != null) {
+            currentEmails.put(fold(user.getEmail()));
+        }
+    }
+
+    // Sized for twice the current users (at least expected-users), filled by keyset-paged reads
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void load() {
+        long start = System.nanoTime();
+        long count = userRepository.count();
+        long capacity = Math.max(expectedUsers, count * 2);
+        // Published first so users created during the load are recorded too
+        usernames = new BloomFilter(capacity, falsePositiveRate);
+        emails = new BloomFilter(capacity, falsePositiveRate);
+        lastSeenId = 0;
+
+        long rows = readUsersAfter(0);
+        refreshedAtNanos = System.nanoTime();
+        ready = true;
+        log.info("Availability filters loaded with {} users ({} bits, {} hashes each) in {} ms", rows,
+                usernames.bitSize(), usernames.hashCount(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // Adds the users saved since the last read, including those saved on other nodes
+    @Scheduled(fixedDelayString = "${app.availability.refresh-interval-ms:5000}")
+    public synchronized void refresh() {
+        if (!ready) {
+            return;
+        }
+        readUsersAfter(Math.max(0, lastSeenId - refreshOverlapIds));
+        refreshedAtNanos = System.nanoTime();
+    }
+
+    private long readUsersAfter(long fromId) {
+        BloomFilter currentUsernames = usernames;
+        BloomFilter currentEmails = emails;
+        long[] state = { fromId, 0, 0 }; // last id, rows in batch, rows total
+        do {
+            state[1] = 0;
+            jdbcTemplate.query("SELECT id, username, email FROM users WHERE id > ? ORDER BY id LIMIT ?", rs -> {
+                String username = rs.getString(2);
+                String email = rs.getString(3);
+                if (username != null) {
+                    currentUsernames.put(fold(username));
+                }
+                if (email != null) {
+                    currentEmails.put(fold(email));
+                }
+                state[0] = rs.getLong(1);
+                state[1]++;
+            }, state[0], loadBatchSize);
+            state[2] += state[1];
+        } while (state[1] == loadBatchSize);
+        lastSeenId = Math.max(lastSeenId, state[0]);
+        return state[2];
+    }
+
+    private boolean trustsNegatives() {
+        return ready && System.nanoTime() - refreshedAtNanos <= TimeUnit.MILLISECONDS.toNanos(maxStalenessMs);
+    }
+
+    /**
+     * Filter key of a value looked up, or null if the filters cannot answer for
+     * it: after folding it still has non-ASCII letters, which the collation may
+     * equate with a stored value folded differently here.
+     */
+    static String key(String value) {
+        String folded = fold(value);
+        for (int i = 0; i < folded.length(); i++) {
+            if (folded.charAt(i) > 0x7F) {
+                return null;
+            }
+        }
+        return folded;
+    }
+
+    // Lower-case, compatibility-decomposed, no diacritics, collation expansions applied
+    static String fold(String value) {
+        String folded = value.toLowerCase(Locale.ROOT);
+        folded = MARKS.matcher(Normalizer.normalize(folded, Normalizer.Form.NFKD)).replaceAll("");
+        for (String[] fold : COLLATION_FOLDS) {
+            folded = folded.replace(fold[0], fold[1]);
+        }
+        return folded;
+    }
+
+    private void record(String field, String result) {
+        Counter.builder("availability.check")
+                .description("Availability checks by field and how they were answered")
+                .tag("field", field)
+                .tag("result", result)
+                .register(meterRegistry)
+                .increment();
+    }
+}
@@ -0,0 +1,284 @@
+package com.connect.social_connect.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.connect.social_connect.config.MailOutboxProperties;
+import com.connect.social_connect.domain.EmailOutbox;
+import com.connect.social_connect.repository.EmailOutboxRepository;
+import com.connect.social_connect.util.constant.EmailOutboxStatusEnum;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.SendFailedException;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Drains the email outbox. A single poller thread claims due rows with a
+ * conditional UPDATE (so several nodes can share the table) and hands each to
+ * a send worker: a virtual thread on Java 21+, a bounded pool otherwise. A
+ * claim is a lease (owner and expiry); if the node dies or stalls mid-send the
+ * row becomes due again, and the outcome is only written while the lease is
+ * still ours, so a slow sender cannot undo the claim of the node that took over.
+ *
+ * Sent rows are deleted. A failure puts the row back with exponential backoff
+ * and jitter; after max-attempts, or at once for an unusable message or
+ * address, it is dead-lettered and kept for inspection without its body.
+ */
+@Service
+@Slf4j
+public class EmailOutboxDispatcher implements DisposableBean {
+
+    private static final List<EmailOutboxStatusEnum> DUE_STATUSES = List.of(EmailOutboxStatusEnum.PENDING,
+            EmailOutboxStatusEnum.SENDING);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final MailOutboxProperties properties;
+    private final String leaseOwner = UUID.randomUUID().toString();
+
+    private final ExecutorService sendExecutor;
+    private final Semaphore sendSlots;
+    // Permits are wake-up requests for the poller
+    private final Semaphore wakeups = new Semaphore(0);
+    private volatile Thread poller;
+    private volatile boolean running;
+
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicLong deadCount = new AtomicLong();
+    private final Timer sentTimer;
+    private final Timer failedTimer;
+    private final Counter deadLettered;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository, EmailService emailService,
+            MailOutboxProperties properties, MeterRegistry meterRegistry) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.properties = properties;
+        this.sendExecutor = newSendExecutor(properties.getConcurrency());
+        this.sendSlots = new Semaphore(properties.getConcurrency());
+
+        Gauge.builder("email.outbox.pending", pendingCount, AtomicLong::get)
+                .description("Outbox rows waiting to be sent")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.dead", deadCount, AtomicLong::get)
+                .description("Dead-lettered outbox rows")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.in.flight", sendSlots,
+                slots -> properties.getConcurrency() - slots.availablePermits())
+                .register(meterRegistry);
+        this.sentTimer = Timer.builder("email.send")
+                .tag("result", "sent")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.failedTimer = Timer.builder("email.send")
+                .tag("result", "failed")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.deadLettered = Counter.builder("email.outbox.dead.lettered").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        poller = new Thread(this::pollLoop, "email-outbox-poller");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        Thread thread = poller;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        sendExecutor.shutdown();
+        sendExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Wake the poller once the queuing transaction has committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmailQueued(EmailQueuedEvent event) {
+        wakeups.release();
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                drain();
+                wakeups.tryAcquire(properties.getPollInterval().toMillis(), TimeUnit.MILLISECONDS);
+                wakeups.drainPermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Database hiccup: keep the poller alive and try again on the next round
+                log.warn("Email outbox poll failed: {}", e.getMessage());
+                sleepQuietly(properties.getPollInterval());
+            }
+        }
+    }
+
+    /**
+     * Claim due rows up to the free send slots and start sending them. Returns
+     * the number of rows handed to workers.
+     */
+    public int drain() {
+        int started = 0;
+        Instant now = Instant.now();
+        int free = Math.min(properties.getBatchSize(), sendSlots.availablePermits());
+        if (free > 0) {
+            // Microseconds, as stored, so the lease checks can compare it for equality
+            Instant leaseUntil = now.plus(properties.getLease()).truncatedTo(ChronoUnit.MICROS);
+            List<Long> ids = emailOutboxRepository.findDueIds(DUE_STATUSES, now, PageRequest.of(0, free));
+            for (Long id : ids) {
+                if (!sendSlots.tryAcquire()) {
+                    break;
+                }
+                if (emailOutboxRepository.claim(id, now, leaseOwner, leaseUntil,
+                        EmailOutboxStatusEnum.SENDING, EmailOutboxStatusEnum.DEAD) != 1) {
+                    // Another node took it
+                    sendSlots.release();
+                    continue;
+                }
+                sendExecutor.execute(() -> {
+                    try {
+                        send(id, leaseUntil);
+                    } finally {
+                        sendSlots.release();
+                    }
+                });
+                started++;
+            }
+        }
+        pendingCount.set(emailOutboxRepository.countByStatus(EmailOutboxStatusEnum.PENDING));
+        deadCount.set(emailOutboxRepository.countByStatus(EmailOutboxStatusEnum.DEAD));
+        return started;
+    }
+
+    // Deliver one claimed row and record the outcome while the lease holds
+    void send(Long id, Instant leaseUntil) {
+        EmailOutbox email = emailOutboxRepository.findById(id).orElse(null);
+        if (email == null) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            emailService.deliver(email.getRecipient(), email.getSubject(), email.getHtmlBody());
+            sentTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (emailOutboxRepository.deleteLeased(id, leaseOwner, leaseUntil) != 1) {
+                // Sent after the lease ran out; the dispatcher that took the row over may send it again
+                log.warn("Email {} sent after its lease lapsed", id);
+            }
+        } catch (Exception e) {
+            failedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            int attempts = email.getAttempts() + 1;
+            String error = truncate(e.getClass().getSimpleName() + ": " + e.getMessage());
+            boolean dead = attempts >= properties.getMaxAttempts() || isPermanent(e);
+            int updated = dead
+                    ? emailOutboxRepository.deadLetter(id, leaseOwner, leaseUntil, EmailOutboxStatusEnum.DEAD,
+                            Instant.now(), error)
+                    : emailOutboxRepository.recordFailure(id, leaseOwner, leaseUntil, EmailOutboxStatusEnum.PENDING,
+                            Instant.now().plus(backoff(attempts)), error);
+            if (updated != 1) {
+                log.warn("Email {} failed after its lease lapsed, left to the new owner: {}", id, error);
+            } else if (dead) {
+                deadLettered.increment();
+                log.warn("Email {} to {} dead-lettered after {} attempts: {}", id,
+                        EmailService.maskEmail(email.getRecipient()), attempts, error);
+            } else {
+                log.info("Email {} failed (attempt {}), will retry: {}", id, attempts, error);
+            }
+        }
+    }
+
+    // initial-backoff * 2^(attempts - 1), capped at max-backoff, drawn from its upper half
+    Duration backoff(int attempts) {
+        long initial = properties.getInitialBackoff().toMillis();
+        long max = properties.getMaxBackoff().toMillis();
+        long delay = attempts >= 31 ? max : Math.min(max, initial << (attempts - 1));
+        if (delay <= 1) {
+            return Duration.ofMillis(delay);
+        }
+        return Duration.ofMillis(delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1));
+    }
+
+    // Retrying cannot fix a message that does not build or an address the server refuses
+    private static boolean isPermanent(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof MailParseException || t instanceof MailPreparationException) {
+                return true;
+            }
+            if (t instanceof SendFailedException sendFailed && sendFailed.getInvalidAddresses() != null
+                    && sendFailed.getInvalidAddresses().length > 0) {
+                return true;
+            }
+            // JavaMailSenderImpl reports per-message failures here rather than as the cause
+            if (t instanceof MailSendException sendException) {
+                for (Exception failure : sendException.getFailedMessages().values()) {
+                    if (failure != t && isPermanent(failure)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= 1000 ? error : error.substring(0, 1000);
+    }
+
+    private static void sleepQuietly(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Virtual threads when the runtime has them (concurrency is bounded by sendSlots), else a fixed pool
+    private static ExecutorService newSendExecutor(int concurrency) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            return new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "email-send-" + threadCount.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.connect.social_connect.service;
+
+/**
+ * Published when an email is written to the outbox. The dispatcher reacts after
+ * commit, so the row is visible by the time it polls.
+ */
+public record EmailQueuedEvent(Long outboxId) {
+}
@@ -3,10 +3,14 @@ package com.connect.social_connect.service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.connect.social_connect.domain.EmailOutbox;
+import com.connect.social_connect.repository.EmailOutboxRepository;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -14,6 +18,8 @@ import jakarta.mail.internet.MimeMessage;
 /**
  * Service for sending emails using Spring Mail and Gmail SMTP.
  * Handles sending OTP verification emails and welcome emails.
+ * Emails are written to the outbox in the caller's transaction and delivered
+ * later by EmailOutboxDispatcher, so no request waits on SMTP.
  */
 @Service
 public class EmailService {
@@ -21,6 +27,8 @@ public class EmailService {
     private static final Logger log = LoggerFactory.getLogger(EmailService.class);
 
     private final JavaMailSender mailSender;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -31,53 +39,61 @@ public class EmailService {
     @Value("${app.otp.expiration-minutes:5}")
     private int otpExpirationMinutes;
 
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender, EmailOutboxRepository emailOutboxRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.mailSender = mailSender;
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * Send OTP verification email to the user.
+     * Queue the OTP verification email for the user.
      * The email contains the OTP code and clear instructions.
      */
-    public void sendOtpEmail(String to, String otpCode) {
+    @Transactional
+    public void queueOtpEmail(String to, String otpCode) {
         String subject = "Xác thực email - " + applicationName;
-        String htmlContent = buildOtpEmailContent(otpCode);
-
-        sendHtmlEmail(to, subject, htmlContent);
-        log.info("OTP email sent successfully to: {}", maskEmail(to));
+        queue(to, subject, buildOtpEmailContent(otpCode));
     }
 
     /**
-     * Send welcome email after successful email verification.
+     * Queue the welcome email after successful email verification.
      */
-    public void sendWelcomeEmail(String to, String displayName) {
+    @Transactional
+    public void queueWelcomeEmail(String to, String displayName) {
         String subject = "Chào mừng đến với " + applicationName;
-        String htmlContent = buildWelcomeEmailContent(displayName);
-
-        sendHtmlEmail(to, subject, htmlContent);
-        log.info("Welcome email sent successfully to: {}", maskEmail(to));
+        queue(to, subject, buildWelcomeEmailContent(displayName));
     }
 
-
     /**
-     * Send HTML email using JavaMailSender.
-     * Handles connection failures gracefully and logs errors.
+     * Send one HTML email now. Called by the outbox dispatcher, which handles
+     * retries, so failures are thrown as they are.
      */
-    private void sendHtmlEmail(String to, String subject, String htmlContent) {
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-        } catch (MailException | MessagingException e) {
-            log.error("Failed to send email to {}: {}", maskEmail(to), e.getMessage());
-            throw new RuntimeException("Không thể gửi email. Vui lòng thử lại sau.", e);
-        }
+    public void deliver(String to, String subject, String htmlContent) throws MessagingException {
+        mailSender.send(buildMessage(to, subject, htmlContent));
+        log.info("Email sent successfully to: {}", maskEmail(to));
+    }
+
+    public MimeMessage buildMessage(String to, String subject, String htmlContent) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        helper.setFrom(fromEmail);
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true);
+        return message;
+    }
+
+    // Outbox row in the current transaction; the dispatcher is woken after commit
+    private void queue(String to, String subject, String htmlContent) {
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setHtmlBody(htmlContent);
+        email.setAttempts(0);
+        emailOutboxRepository.save(email);
+        eventPublisher.publishEvent(new EmailQueuedEvent(email.getId()));
     }
 
     /**
@@ -163,7 +179,7 @@ public class EmailService {
     /**
      * Mask email address for logging (privacy protection).
      */
-    private String maskEmail(String email) {
+    static String maskEmail(String email) {
         if (email == null || !email.contains("@")) {
             return "***";
         }
@@ -0,0 +1,109 @@
+package com.connect.social_connect.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * OtpStore on a ConcurrentHashMap. Entries are immutable and every operation
+ * is a single compute() on the email's key, which makes it atomic. An entry is
+ * kept while its code is valid, while it is locked and, so the resend limit
+ * holds, for the resend cooldown after issue; then it is dropped on access or
+ * by the periodic sweep. State, and with it the attempt and resend limits, is
+ * per node: run with app.otp.store=jpa when requests for one email can reach
+ * different instances.
+ */
+@Component
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private record Entry(String code, Instant expiresAt, int attemptCount, int resendCount,
+            Instant lockedUntil, Instant retainUntil) {
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Duration resendCooldown;
+
+    public InMemoryOtpStore(@Value("${app.otp.resend-cooldown-minutes:30}") int resendCooldownMinutes,
+            MeterRegistry meterRegistry) {
+        this.resendCooldown = Duration.ofMinutes(resendCooldownMinutes);
+        Gauge.builder("otp.store.size", entries, ConcurrentHashMap::size)
+                .description("Pending OTPs held in memory")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void issue(String email, String code, Instant expiresAt, Instant now) {
+        entries.put(email, new Entry(code, expiresAt, 0, 0, null, latest(expiresAt, now.plus(resendCooldown))));
+    }
+
+    @Override
+    public VerifyResult verify(String email, String code, Instant now, int maxAttempts, Duration lockout) {
+        VerifyResult[] result = new VerifyResult[1];
+        entries.compute(email, (key, entry) -> {
+            if (entry == null || !now.isBefore(entry.retainUntil())) {
+                result[0] = VerifyResult.NOT_FOUND;
+                return null;
+            }
+            if (entry.lockedUntil() != null && now.isBefore(entry.lockedUntil())) {
+                result[0] = VerifyResult.LOCKED;
+                return entry;
+            }
+            if (now.isAfter(entry.expiresAt())) {
+                result[0] = VerifyResult.EXPIRED;
+                return entry;
+            }
+            if (entry.code().equals(code)) {
+                result[0] = VerifyResult.VERIFIED;
+                return null;
+            }
+            result[0] = VerifyResult.INVALID;
+            int attempts = entry.attemptCount() + 1;
+            Instant lockedUntil = attempts >= maxAttempts ? now.plus(lockout) : entry.lockedUntil();
+            return new Entry(entry.code(), entry.expiresAt(), attempts, entry.resendCount(), lockedUntil,
+                    latest(entry.retainUntil(), lockedUntil));
+        });
+        return result[0];
+    }
+
+    @Override
+    public ResendResult resend(String email, String code, Instant expiresAt, Instant now, int maxResend) {
+        ResendResult[] result = new ResendResult[1];
+        entries.compute(email, (key, entry) -> {
+            if (entry == null || !now.isBefore(entry.retainUntil())) {
+                result[0] = new ResendResult(ResendStatus.NOT_FOUND, maxResend);
+                return null;
+            }
+            if (entry.resendCount() >= maxResend) {
+                result[0] = new ResendResult(ResendStatus.LIMIT_REACHED, 0);
+                return entry;
+            }
+            int resends = entry.resendCount() + 1;
+            result[0] = new ResendResult(ResendStatus.RESENT, Math.max(0, maxResend - resends));
+            return new Entry(code, expiresAt, 0, resends, null,
+                    latest(expiresAt, now.plus(resendCooldown)));
+        });
+        return result[0];
+    }
+
+    @Scheduled(fixedDelayString = "${app.otp.memory-sweep-interval-ms:60000}")
+    public void sweep() {
+        Instant now = Instant.now();
+        entries.values().removeIf(entry -> !now.isBefore(entry.retainUntil()));
+    }
+
+    private static Instant latest(Instant a, Instant b) {
+        if (b == null) {
+            return a;
+        }
+        return a.isAfter(b) ? a : b;
+    }
+}
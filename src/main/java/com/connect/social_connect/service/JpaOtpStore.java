@@ -0,0 +1,139 @@
+package com.connect.social_connect.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.connect.social_connect.domain.OtpVerification;
+import com.connect.social_connect.repository.OtpVerificationRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durable OtpStore on the otp_verifications table, for deployments where one
+ * email's requests may reach different nodes. Rows that are never verified are
+ * removed by a periodic chunked purge.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.otp.store", havingValue = "jpa")
+public class JpaOtpStore implements OtpStore {
+
+    private final OtpVerificationRepository otpVerificationRepository;
+    private final Counter purgedRows;
+    private final Timer purgeTimer;
+
+    @Value("${app.otp.resend-cooldown-minutes:30}")
+    private int resendCooldownMinutes;
+
+    @Value("${app.otp.purge-batch-size:5000}")
+    private int purgeBatchSize;
+
+    @Value("${app.otp.purge-pause-ms:100}")
+    private long purgePauseMs;
+
+    public JpaOtpStore(OtpVerificationRepository otpVerificationRepository, MeterRegistry meterRegistry) {
+        this.otpVerificationRepository = otpVerificationRepository;
+        this.purgedRows = Counter.builder("otp.purge.rows")
+                .description("Expired OTP rows deleted")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("otp.purge")
+                .description("Time spent per OTP purge run, pauses included")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public void issue(String email, String code, Instant expiresAt, Instant now) {
+        otpVerificationRepository.deleteByEmail(email);
+
+        OtpVerification otpVerification = new OtpVerification();
+        otpVerification.setEmail(email);
+        otpVerification.setOtpCode(code);
+        otpVerification.setExpiresAt(expiresAt);
+        otpVerification.setAttemptCount(0);
+        otpVerification.setResendCount(0);
+        otpVerification.setCreatedAt(now);
+        otpVerification.setLockedUntil(null);
+        otpVerificationRepository.save(otpVerification);
+    }
+
+    /**
+     * A conditional DELETE consumes a correct code; otherwise a conditional
+     * UPDATE counts the attempt. Both re-check expiry and lock under the row
+     * lock, so parallel guesses cannot slip past maxAttempts. The row is only
+     * read when neither statement matched, to say why.
+     */
+    @Override
+    @Transactional
+    public VerifyResult verify(String email, String code, Instant now, int maxAttempts, Duration lockout) {
+        if (otpVerificationRepository.deleteMatching(email, code, now) == 1) {
+            return VerifyResult.VERIFIED;
+        }
+        if (otpVerificationRepository.recordFailedAttempt(email, now, maxAttempts, now.plus(lockout)) == 1) {
+            return VerifyResult.INVALID;
+        }
+
+        Optional<OtpVerification> optionalOtp = otpVerificationRepository.findByEmail(email);
+        if (optionalOtp.isEmpty()) {
+            return VerifyResult.NOT_FOUND;
+        }
+        return isLocked(optionalOtp.get(), now) ? VerifyResult.LOCKED : VerifyResult.EXPIRED;
+    }
+
+    @Override
+    @Transactional
+    public ResendResult resend(String email, String code, Instant expiresAt, Instant now, int maxResend) {
+        if (otpVerificationRepository.resend(email, code, expiresAt, maxResend) == 1) {
+            // Row is locked by the update until commit, so this read is ours
+            int resends = otpVerificationRepository.findResendCount(email).orElse(maxResend);
+            return new ResendResult(ResendStatus.RESENT, Math.max(0, maxResend - resends));
+        }
+        return otpVerificationRepository.findResendCount(email).isPresent()
+                ? new ResendResult(ResendStatus.LIMIT_REACHED, 0)
+                : new ResendResult(ResendStatus.NOT_FOUND, maxResend);
+    }
+
+    // Delete dead rows in bounded chunks, pausing between them so no statement holds locks for long
+    @Scheduled(fixedDelayString = "${app.otp.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        Instant issuedBefore = now.minus(Duration.ofMinutes(resendCooldownMinutes));
+        long total = 0;
+        int deleted;
+        try {
+            do {
+                deleted = otpVerificationRepository.deleteExpiredBatch(now, issuedBefore, purgeBatchSize);
+                total += deleted;
+                purgedRows.increment(deleted);
+                if (deleted == purgeBatchSize) {
+                    Thread.sleep(purgePauseMs);
+                }
+            } while (deleted == purgeBatchSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            purgeTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            if (total > 0) {
+                log.info("Purged {} expired OTP rows in {} ms", total, TimeUnit.NANOSECONDS.toMillis(elapsed));
+            }
+        }
+    }
+
+    private static boolean isLocked(OtpVerification otpVerification, Instant now) {
+        Instant lockedUntil = otpVerification.getLockedUntil();
+        return lockedUntil != null && now.isBefore(lockedUntil);
+    }
+}
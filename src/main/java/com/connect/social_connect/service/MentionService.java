@@ -0,0 +1,182 @@
+package com.connect.social_connect.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.connect.social_connect.domain.User;
+import com.connect.social_connect.domain.response.ResMentionDTO;
+import com.connect.social_connect.repository.ChatMemberRepository;
+import com.connect.social_connect.repository.FriendshipRepository;
+import com.connect.social_connect.repository.UserRepository;
+import com.connect.social_connect.util.MentionTrie;
+import com.connect.social_connect.util.constant.FriendshipStatusEnum;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * @mention autocomplete from an in-memory MentionTrie, ranked by the viewer's
+ * accepted friends, then chat co-members, then everyone else. The viewer's
+ * close users are read once and cached for a few minutes, so a keystroke costs
+ * one trie lookup and no query. UserService keeps the trie current on sign-up,
+ * profile update and delete; the trie is loaded from the users table at startup
+ * through a UserIndexLoader and reloaded on a schedule, as UserSearchService
+ * rebuilds its index, so changes made on other nodes are at most
+ * reload-interval plus one reload stale.
+ */
+@Service
+@Slf4j
+public class MentionService {
+
+    static final int TIER_FRIEND = 0;
+    static final int TIER_CO_MEMBER = 1;
+    private static final String[] PROXIMITY = { "FRIEND", "CHAT", "OTHER" };
+
+    private final UserIndexLoader loader;
+    private final FriendshipRepository friendshipRepository;
+    private final ChatMemberRepository chatMemberRepository;
+    private volatile MentionTrie trie = new MentionTrie();
+    private volatile MentionTrie building;
+    private final Cache<Long, Map<Long, Integer>> proximityCache;
+    private final Timer suggestTimer;
+
+    @Value("${app.mention.load-on-startup:true}")
+    private boolean loadOnStartup;
+
+    @Value("${app.mention.load-batch-size:5000}")
+    private int loadBatchSize;
+
+    @Value("${app.mention.max-results:20}")
+    private int maxResults;
+
+    // Friends and co-members ranked ahead of everyone else, each keystroke scans all of them
+    @Value("${app.mention.max-close-users:1000}")
+    private int maxCloseUsers;
+
+    public MentionService(UserRepository userRepository, FriendshipRepository friendshipRepository,
+            ChatMemberRepository chatMemberRepository,
+            @Value("${app.mention.proximity-cache-max-users:500000}") long proximityCacheMaxUsers,
+            @Value("${app.mention.proximity-ttl-seconds:300}") long proximityTtlSeconds,
+            MeterRegistry meterRegistry) {
+        this.loader = new UserIndexLoader(userRepository);
+        this.friendshipRepository = friendshipRepository;
+        this.chatMemberRepository = chatMemberRepository;
+        // Weighed by close users held, so a few viewers with full lists cannot blow the heap
+        this.proximityCache = Caffeine.newBuilder()
+                .maximumWeight(proximityCacheMaxUsers)
+                .<Long, Map<Long, Integer>>weigher((viewerId, tiers) -> tiers.size() + 1)
+                .expireAfterWrite(Duration.ofSeconds(proximityTtlSeconds))
+                .build();
+
+        this.suggestTimer = Timer.builder("mention.suggest")
+                .description("Latency of one @mention autocomplete lookup")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("mention.trie.size", this, service -> service.trie.size())
+                .description("Users in the @mention trie")
+                .register(meterRegistry);
+    }
+
+    public List<ResMentionDTO> suggest(Long viewerId, String prefix, int limit) {
+        long start = System.nanoTime();
+        Map<Long, Integer> tiers = viewerId != null
+                ? proximityCache.get(viewerId, this::loadProximity)
+                : Map.of();
+        // The viewer is skipped inside the trie, so it does not cost a result slot
+        List<MentionTrie.Suggestion> suggestions = trie.suggest(prefix, tiers,
+                viewerId != null ? viewerId : MentionTrie.NO_USER, Math.min(Math.max(limit, 1), maxResults));
+
+        List<ResMentionDTO> result = new ArrayList<>(suggestions.size());
+        for (MentionTrie.Suggestion suggestion : suggestions) {
+            ResMentionDTO dto = new ResMentionDTO();
+            dto.setId(suggestion.userId());
+            dto.setUsername(suggestion.username());
+            dto.setDisplayName(suggestion.displayName());
+            dto.setAvatarUrl(suggestion.avatarUrl());
+            dto.setProximity(PROXIMITY[tiers.getOrDefault(suggestion.userId(), PROXIMITY.length - 1)]);
+            result.add(dto);
+        }
+        suggestTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    public void indexUser(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        // building is read before trie: reload publishes trie before clearing building
+        MentionTrie next = building;
+        MentionTrie current = trie;
+        current.upsert(user.getId(), user.getUsername(), user.getDisplayName(), user.getAvatarUrl());
+        if (next != null && next != current) {
+            next.upsert(user.getId(), user.getUsername(), user.getDisplayName(), user.getAvatarUrl());
+        }
+    }
+
+    public void removeUser(Long userId) {
+        loader.removed(userId);
+        MentionTrie next = building;
+        MentionTrie current = trie;
+        current.remove(userId);
+        if (next != null && next != current) {
+            next.remove(userId);
+        }
+        proximityCache.invalidate(userId);
+    }
+
+    // Friends first, co-members fill the rest of the cap
+    private Map<Long, Integer> loadProximity(Long viewerId) {
+        Map<Long, Integer> tiers = new HashMap<>();
+        for (Long id : friendshipRepository.findFriendIds(viewerId, FriendshipStatusEnum.ACCEPTED,
+                PageRequest.of(0, maxCloseUsers))) {
+            tiers.put(id, TIER_FRIEND);
+        }
+        int remaining = maxCloseUsers - tiers.size();
+        if (remaining > 0) {
+            for (Long id : chatMemberRepository.findCoMemberIds(viewerId, PageRequest.of(0, remaining))) {
+                tiers.putIfAbsent(id, TIER_CO_MEMBER);
+            }
+        }
+        return tiers;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (loadOnStartup) {
+            reload();
+        }
+    }
+
+    // Load every user into a fresh trie, then swap it in; live writes reach both meanwhile
+    @Scheduled(initialDelayString = "${app.mention.reload-interval-ms:600000}",
+            fixedDelayString = "${app.mention.reload-interval-ms:600000}")
+    public synchronized void reload() {
+        long start = System.nanoTime();
+        MentionTrie next = new MentionTrie();
+        building = next;
+        try {
+            loader.load(loadBatchSize,
+                    row -> next.addIfAbsent(row.id(), row.username(), row.displayName(), row.avatarUrl()));
+            trie = next;
+        } finally {
+            building = null;
+        }
+        log.info("Mention trie loaded with {} users in {} ms", next.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
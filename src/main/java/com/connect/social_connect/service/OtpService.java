@@ -1,21 +1,25 @@
 package com.connect.social_connect.service;
 
 import java.security.SecureRandom;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.connect.social_connect.domain.OtpVerification;
-import com.connect.social_connect.repository.OtpVerificationRepository;
+import com.connect.social_connect.service.OtpStore.ResendResult;
+import com.connect.social_connect.service.OtpStore.ResendStatus;
+import com.connect.social_connect.service.OtpStore.VerifyResult;
 
 @Service
 public class OtpService {
 
-    private final OtpVerificationRepository otpVerificationRepository;
+    // New code and the resends left after sending it
+    public record ResentOtp(String otpCode, int remainingAttempts) {
+    }
+
+    private final OtpStore otpStore;
     private final SecureRandom secureRandom;
 
     @Value("${app.otp.expiration-minutes:5}")
@@ -30,140 +34,49 @@ public class OtpService {
     @Value("${app.otp.max-resend:3}")
     private int maxResend;
 
-    @Value("${app.otp.resend-cooldown-minutes:30}")
-    private int resendCooldownMinutes;
-
-    public OtpService(OtpVerificationRepository otpVerificationRepository) {
-        this.otpVerificationRepository = otpVerificationRepository;
+    public OtpService(OtpStore otpStore) {
+        this.otpStore = otpStore;
         this.secureRandom = new SecureRandom();
     }
 
     /**
-     * Generate a 6-digit OTP and save to database.
+     * Generate a 6-digit OTP and store it.
      * If an OTP already exists for the email, it will be invalidated and replaced.
      */
-    @Transactional
     public String generateOtp(String email) {
-        // Delete any existing OTP for this email
-        otpVerificationRepository.deleteByEmail(email);
-
-        // Generate 6-digit OTP
         String otpCode = generateOtpCode();
-
-        // Create and save new OTP verification
-        OtpVerification otpVerification = new OtpVerification();
-        otpVerification.setEmail(email);
-        otpVerification.setOtpCode(otpCode);
-        otpVerification.setExpiresAt(Instant.now().plus(expirationMinutes, ChronoUnit.MINUTES));
-        otpVerification.setAttemptCount(0);
-        otpVerification.setResendCount(0);
-        otpVerification.setCreatedAt(Instant.now());
-        otpVerification.setLockedUntil(null);
-
-        otpVerificationRepository.save(otpVerification);
-
+        Instant now = Instant.now();
+        otpStore.issue(email, otpCode, now.plus(expirationMinutes, ChronoUnit.MINUTES), now);
         return otpCode;
     }
 
     /**
-     * Verify the OTP code for a given email.
-     * Increments attempt count on failure.
+     * Verify the OTP code for a given email in one store operation.
+     * A failed attempt is counted and locks the email after max-attempts.
      */
-    @Transactional
-    public boolean verifyOtp(String email, String otpCode) {
-        Optional<OtpVerification> optionalOtp = otpVerificationRepository.findByEmail(email);
-
-        if (optionalOtp.isEmpty()) {
-            return false;
-        }
-
-        OtpVerification otpVerification = optionalOtp.get();
-
-        // Check if locked
-        if (isLocked(otpVerification)) {
-            return false;
-        }
-
-        // Check if expired
-        if (isExpired(otpVerification)) {
-            return false;
-        }
-
-        // Check if OTP matches
-        if (!otpVerification.getOtpCode().equals(otpCode)) {
-            // Increment attempt count
-            otpVerification.setAttemptCount(otpVerification.getAttemptCount() + 1);
-
-            // Lock if max attempts reached
-            if (otpVerification.getAttemptCount() >= maxAttempts) {
-                otpVerification.setLockedUntil(Instant.now().plus(lockoutMinutes, ChronoUnit.MINUTES));
-            }
-
-            otpVerificationRepository.save(otpVerification);
-            return false;
-        }
-
-        // OTP is valid - delete it (single-use)
-        otpVerificationRepository.deleteByEmail(email);
-        return true;
-    }
-
-     //Check if OTP verification is locked due to too many failed attempts.
-    public boolean isOtpLocked(String email) {
-        Optional<OtpVerification> optionalOtp = otpVerificationRepository.findByEmail(email);
-
-        if (optionalOtp.isEmpty()) {
-            return false;
-        }
-
-        return isLocked(optionalOtp.get());
+    public VerifyResult verifyOtp(String email, String otpCode) {
+        return otpStore.verify(email, otpCode, Instant.now(), maxAttempts, Duration.ofMinutes(lockoutMinutes));
     }
 
     /**
      * Resend OTP by generating a new one and invalidating the previous.
      * Increments resend count.
      */
-    @Transactional
-    public String resendOtp(String email) {
-        Optional<OtpVerification> optionalOtp = otpVerificationRepository.findByEmail(email);
-
-        if (optionalOtp.isEmpty()) {
-            // No existing OTP, generate new one
-            return generateOtp(email);
-        }
-
-        OtpVerification otpVerification = optionalOtp.get();
+    public ResentOtp resendOtp(String email) {
+        String newOtpCode = generateOtpCode();
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(expirationMinutes, ChronoUnit.MINUTES);
 
-        // Check if resend limit reached
-        if (otpVerification.getResendCount() >= maxResend) {
+        ResendResult result = otpStore.resend(email, newOtpCode, expiresAt, now, maxResend);
+        if (result.status() == ResendStatus.LIMIT_REACHED) {
             throw new IllegalStateException("Resend limit reached. Please wait before requesting again.");
         }
-
-        // Generate new OTP code
-        String newOtpCode = generateOtpCode();
-
-        // Update existing record with new OTP
-        otpVerification.setOtpCode(newOtpCode);
-        otpVerification.setExpiresAt(Instant.now().plus(expirationMinutes, ChronoUnit.MINUTES));
-        otpVerification.setAttemptCount(0);
-        otpVerification.setResendCount(otpVerification.getResendCount() + 1);
-        otpVerification.setLockedUntil(null);
-
-        otpVerificationRepository.save(otpVerification);
-
-        return newOtpCode;
-    }
-
-     //Get the remaining number of resend attempts for an email.
-    public int getRemainingResendAttempts(String email) {
-        Optional<OtpVerification> optionalOtp = otpVerificationRepository.findByEmail(email);
-
-        if (optionalOtp.isEmpty()) {
-            return maxResend;
+        if (result.status() == ResendStatus.NOT_FOUND) {
+            // No existing OTP, issue a fresh one
+            otpStore.issue(email, newOtpCode, expiresAt, now);
+            return new ResentOtp(newOtpCode, maxResend);
         }
-
-        int remaining = maxResend - optionalOtp.get().getResendCount();
-        return Math.max(0, remaining);
+        return new ResentOtp(newOtpCode, result.remaining());
     }
 
      //Generate a 6-digit numeric OTP code.
@@ -171,15 +84,4 @@ public class OtpService {
         int otp = 100000 + secureRandom.nextInt(900000);
         return String.valueOf(otp);
     }
-
-     //Check if the OTP verification is locked.
-    private boolean isLocked(OtpVerification otpVerification) {
-        Instant lockedUntil = otpVerification.getLockedUntil();
-        return lockedUntil != null && Instant.now().isBefore(lockedUntil);
-    }
-
-     //Check if the OTP has expired.
-    private boolean isExpired(OtpVerification otpVerification) {
-        return Instant.now().isAfter(otpVerification.getExpiresAt());
-    }
 }
@@ -0,0 +1,39 @@
+package com.connect.social_connect.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Storage for pending email OTPs, one per email. Each method is a single
+ * atomic operation, so OtpService never reads state and writes it back in two
+ * steps. Select the implementation with app.otp.store: "memory" (default,
+ * entries expire on their own) or "jpa" (otp_verifications table). The memory
+ * store enforces max-attempts and max-resend per node, so behind a balancer
+ * without sticky sessions each node grants its own allowance; use jpa there.
+ */
+public interface OtpStore {
+
+    enum VerifyResult {
+        VERIFIED, INVALID, EXPIRED, LOCKED, NOT_FOUND
+    }
+
+    enum ResendStatus {
+        RESENT, LIMIT_REACHED, NOT_FOUND
+    }
+
+    // remaining is the number of resends left after this one
+    record ResendResult(ResendStatus status, int remaining) {
+    }
+
+    // Replace any OTP for the email with a fresh code and reset its counters
+    void issue(String email, String code, Instant expiresAt, Instant now);
+
+    /**
+     * Check the code. A match consumes the OTP; a miss counts an attempt and
+     * locks the email for the lockout window once maxAttempts is reached.
+     */
+    VerifyResult verify(String email, String code, Instant now, int maxAttempts, Duration lockout);
+
+    // Swap in a new code, clearing attempts and lock, unless maxResend resends were used
+    ResendResult resend(String email, String code, Instant expiresAt, Instant now, int maxResend);
+}
@@ -1,6 +1,8 @@
 package com.connect.social_connect.service;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
@@ -10,24 +12,30 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.connect.social_connect.domain.Permission;
-import com.connect.social_connect.domain.Role;
 import com.connect.social_connect.domain.request.ReqCreatePermissionDTO;
 import com.connect.social_connect.domain.request.ReqUpdatePermissionDTO;
 import com.connect.social_connect.domain.response.ResPermissionDTO;
 import com.connect.social_connect.domain.response.ResultPaginationDTO;
 import com.connect.social_connect.repository.PermissionRepository;
+import com.connect.social_connect.util.CursorPagination;
 import com.connect.social_connect.util.error.IdInvalidException;
 
 @Service
 public class PermissionService {
 
+    // Non-null columns usable as keyset sort keys
+    private static final Set<String> CURSOR_SORTABLE = Set.of("id", "name", "apiPath");
+
     private final PermissionRepository permissionRepository;
+    private final AuthorizationService authorizationService;
 
-    public PermissionService(PermissionRepository permissionRepository) {
+    public PermissionService(PermissionRepository permissionRepository, AuthorizationService authorizationService) {
         this.permissionRepository = permissionRepository;
+        this.authorizationService = authorizationService;
     }
 
     // Create a new permission
+    @Transactional
     public Permission createPermission(ReqCreatePermissionDTO dto) throws IdInvalidException {
         // Check if apiPath + method combination already exists
         if (permissionRepository.existsByApiPathAndMethod(dto.getApiPath(), dto.getMethod())) {
@@ -41,7 +49,9 @@ public class PermissionService {
         permission.setMethod(dto.getMethod());
         permission.setModule(dto.getModule());
 
-        return permissionRepository.save(permission);
+        Permission savedPermission = permissionRepository.save(permission);
+        authorizationService.recordChange();
+        return savedPermission;
     }
 
     // Fetch permission by ID
@@ -50,6 +60,13 @@ public class PermissionService {
     }
 
 
+    // Keyset page of permissions after the given cursor, see CursorPagination
+    public ResultPaginationDTO fetchAllPermissionsByCursor(Specification<Permission> spec, Pageable pageable,
+            String after, boolean count) throws IdInvalidException {
+        return CursorPagination.fetch(permissionRepository, spec, pageable, CURSOR_SORTABLE, after, count,
+                permissions -> permissions.stream().map(this::convertToResPermissionDTO).collect(Collectors.toList()));
+    }
+
     // Fetch all permissions with pagination
     public ResultPaginationDTO fetchAllPermissions(Specification<Permission> spec, Pageable pageable) {
         Page<Permission> pagePermission = permissionRepository.findAll(spec, pageable);
@@ -74,6 +91,7 @@ public class PermissionService {
     }
 
     // Update permission
+    @Transactional
     public Permission updatePermission(Long id, ReqUpdatePermissionDTO dto) throws IdInvalidException {
         Permission permission = permissionRepository.findById(id).orElse(null);
         if (permission == null) {
@@ -108,7 +126,9 @@ public class PermissionService {
             permission.setModule(dto.getModule());
         }
 
-        return permissionRepository.save(permission);
+        Permission savedPermission = permissionRepository.save(permission);
+        authorizationService.recordChange();
+        return savedPermission;
     }
 
     // Delete permission with cascade removal from roles
@@ -119,15 +139,12 @@ public class PermissionService {
             throw new IdInvalidException("Permission với id = " + id + " không tồn tại");
         }
 
-        // Remove permission from all roles (cascade removal)
-        List<Role> roles = permission.getRoles();
-        if (roles != null && !roles.isEmpty()) {
-            for (Role role : roles) {
-                role.getPermissions().remove(permission);
-            }
-        }
+        // Remove permission from all roles with set-based SQL instead of loading each role
+        permissionRepository.bumpRoleVersionsByPermissionId(id, Instant.now());
+        permissionRepository.deleteRoleLinks(id);
 
         permissionRepository.delete(permission);
+        authorizationService.recordChange();
     }
 
     // Check if apiPath + method combination exists
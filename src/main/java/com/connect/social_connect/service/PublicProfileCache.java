@@ -0,0 +1,80 @@
+package com.connect.social_connect.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.connect.social_connect.domain.User;
+import com.connect.social_connect.domain.response.ResPublicProfileDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Bounded cache of public profiles for GET /api/v1/users/{id}, the most called
+ * endpoint. Entries carry the ETag of the profile so unchanged profiles can be
+ * answered with 304. UserService invalidates an entry whenever it changes a
+ * profile; the TTL bounds staleness from writes that bypass it.
+ */
+@Component
+public class PublicProfileCache {
+
+    public record Entry(ResPublicProfileDTO profile, String etag) {
+    }
+
+    private final Cache<Long, Entry> cache;
+
+    public PublicProfileCache(
+            @Value("${app.profile-cache.max-size:10000}") long maximumSize,
+            @Value("${app.profile-cache.ttl-seconds:300}") long ttlSeconds,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+
+        Gauge.builder("profile.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of public profile reads served from the cache")
+                .register(meterRegistry);
+        Gauge.builder("profile.cache.size", cache, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    // Cached entry, or the loader's result; a null result (unknown user) is not cached
+    public Entry get(Long userId, Function<Long, Entry> loader) {
+        return cache.get(userId, loader);
+    }
+
+    // Cached entries plus whatever the loader returns for the rest in one call; ids the
+    // loader leaves out (unknown users) are absent from the result and not cached
+    public Map<Long, Entry> getAll(Collection<Long> userIds,
+            Function<Set<? extends Long>, Map<Long, Entry>> loader) {
+        return cache.getAll(userIds, loader);
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    // Strong validator: changes with every write of the user row (updatedAt), quoted per RFC 9110
+    public static String etagOf(User user) {
+        return etagOf(user.getId(), user.getUpdatedAt(), user.getCreatedAt());
+    }
+
+    public static String etagOf(Long userId, Instant updatedAt, Instant createdAt) {
+        Instant stamp = updatedAt != null ? updatedAt : createdAt;
+        String version = stamp != null ? stamp.getEpochSecond() + "." + stamp.getNano() : "0";
+        return "\"" + userId + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,9 @@
+package com.connect.social_connect.service;
+
+/**
+ * Published in the writing transaction whenever the RBAC epoch is bumped.
+ * Local stand-in for a change feed: listeners react after commit, other nodes
+ * catch up through AuthorizationService.pollEpoch().
+ */
+public record RbacChangedEvent(long epoch) {
+}
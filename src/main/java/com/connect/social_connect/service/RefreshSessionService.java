@@ -0,0 +1,118 @@
+package com.connect.social_connect.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.connect.social_connect.domain.RefreshSession;
+import com.connect.social_connect.domain.User;
+import com.connect.social_connect.repository.RefreshSessionRepository;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Per-device refresh token sessions.
+ * Tokens are stored as a fixed-length SHA-256 hash behind a unique index, so
+ * lookup, rotation and revocation are single index probes and the users row is
+ * never rewritten on refresh.
+ */
+@Service
+@Slf4j
+public class RefreshSessionService {
+
+    private static final int USER_AGENT_MAX_LENGTH = 255;
+
+    private final RefreshSessionRepository refreshSessionRepository;
+
+    @Value("${app.jwt.refresh-token-validity-in-seconds}")
+    private long refreshTokenExpiration;
+
+    @Value("${app.refresh-session.purge-batch-size:1000}")
+    private int purgeBatchSize;
+
+    public RefreshSessionService(RefreshSessionRepository refreshSessionRepository) {
+        this.refreshSessionRepository = refreshSessionRepository;
+    }
+
+    // Open a new session for a login on this device
+    public RefreshSession createSession(User user, String refreshToken, HttpServletRequest request) {
+        RefreshSession session = new RefreshSession();
+        session.setUser(user);
+        session.setTokenHash(hash(refreshToken));
+        session.setExpiresAt(Instant.now().plus(refreshTokenExpiration, ChronoUnit.SECONDS));
+
+        if (request != null) {
+            String userAgent = request.getHeader("User-Agent");
+            if (userAgent != null && userAgent.length() > USER_AGENT_MAX_LENGTH) {
+                userAgent = userAgent.substring(0, USER_AGENT_MAX_LENGTH);
+            }
+            session.setUserAgent(userAgent);
+            session.setIpAddress(request.getRemoteAddr());
+        }
+
+        return refreshSessionRepository.save(session);
+    }
+
+    // Live session for the token (with user and role loaded), or null
+    public RefreshSession findActiveSession(String refreshToken) {
+        RefreshSession session = refreshSessionRepository.findByTokenHash(hash(refreshToken)).orElse(null);
+        if (session == null || !session.getExpiresAt().isAfter(Instant.now())) {
+            return null;
+        }
+        return session;
+    }
+
+    // Replace the session token; false if it was already used or expired
+    public boolean rotate(String oldRefreshToken, String newRefreshToken) {
+        Instant now = Instant.now();
+        int updated = refreshSessionRepository.rotate(hash(oldRefreshToken), hash(newRefreshToken),
+                now.plus(refreshTokenExpiration, ChronoUnit.SECONDS), now);
+        return updated == 1;
+    }
+
+    // Log out this device only
+    public void revoke(String refreshToken) {
+        refreshSessionRepository.deleteByTokenHash(hash(refreshToken));
+    }
+
+    // Log out every device of the user
+    public void revokeAll(Long userId) {
+        refreshSessionRepository.deleteByUserId(userId);
+    }
+
+    // Delete expired sessions in bounded chunks so no statement holds locks for long
+    @Scheduled(fixedDelayString = "${app.refresh-session.purge-interval-ms:3600000}")
+    public void purgeExpiredSessions() {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        long total = 0;
+        int deleted;
+        do {
+            deleted = refreshSessionRepository.deleteExpiredBatch(now, purgeBatchSize);
+            total += deleted;
+        } while (deleted == purgeBatchSize);
+
+        if (total > 0) {
+            log.info("Purged {} expired refresh sessions in {} ms", total,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    // Hex SHA-256 of the raw token
+    public static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 không khả dụng", e);
+        }
+    }
+}
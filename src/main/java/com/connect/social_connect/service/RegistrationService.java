@@ -0,0 +1,121 @@
+package com.connect.social_connect.service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.connect.social_connect.domain.User;
+import com.connect.social_connect.domain.request.ReqRegisterDTO;
+import com.connect.social_connect.repository.UserRepository;
+import com.connect.social_connect.util.constant.AuthProviderEnum;
+import com.connect.social_connect.util.error.IdInvalidException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Local sign-up. The user row, its OTP and the OTP email (an outbox row) are
+ * written in one transaction with no existence probes up front: a taken email
+ * or username is reported by the unique constraint and mapped back to the
+ * usual error message. Resend and activation queue their emails the same way,
+ * so no step waits on SMTP.
+ */
+@Service
+public class RegistrationService {
+
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final OtpService otpService;
+    private final EmailService emailService;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer registerTimer;
+
+    public RegistrationService(UserRepository userRepository, UserService userService, OtpService otpService,
+            EmailService emailService, PasswordEncoder passwordEncoder,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.otpService = otpService;
+        this.emailService = emailService;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.registerTimer = Timer.builder("auth.register")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public User register(ReqRegisterDTO registerDTO) throws IdInvalidException {
+        long start = System.nanoTime();
+        try {
+            User user = new User();
+            user.setUsername(registerDTO.getUsername());
+            user.setEmail(registerDTO.getEmail());
+            user.setPasswordHash(passwordEncoder.encode(registerDTO.getPassword()));
+            user.setDisplayName(registerDTO.getDisplayName());
+            user.setIsEmailVerified(false);
+            user.setAuthProvider(AuthProviderEnum.LOCAL);
+            user.setRole(userService.getDefaultRole());
+
+            User saved;
+            try {
+                saved = transactionTemplate.execute(status -> {
+                    User inserted = userRepository.saveAndFlush(user);
+                    String otpCode = otpService.generateOtp(inserted.getEmail());
+                    emailService.queueOtpEmail(inserted.getEmail(), otpCode);
+                    return inserted;
+                });
+            } catch (DataIntegrityViolationException e) {
+                throw new IdInvalidException(conflictMessage(e, registerDTO));
+            }
+
+            userService.onUserCreated(saved);
+            return saved;
+        } finally {
+            registerTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // New OTP and its email in one transaction; IllegalStateException once the resend limit is used up
+    public OtpService.ResentOtp resendOtp(String email) {
+        return transactionTemplate.execute(status -> {
+            OtpService.ResentOtp resent = otpService.resendOtp(email);
+            emailService.queueOtpEmail(email, resent.otpCode());
+            return resent;
+        });
+    }
+
+    // Mark the email verified and queue the welcome email together
+    public User activate(String email) {
+        return transactionTemplate.execute(status -> {
+            User activated = userService.activateUser(email);
+            if (activated != null) {
+                emailService.queueWelcomeEmail(email, activated.getDisplayName());
+            }
+            return activated;
+        });
+    }
+
+    // Which unique key was hit; databases created before the keys were named fall back to a lookup
+    private String conflictMessage(DataIntegrityViolationException e, ReqRegisterDTO registerDTO) {
+        String detail = String.valueOf(e.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (detail.contains(User.UK_EMAIL)) {
+            return "Email đã tồn tại";
+        }
+        if (detail.contains(User.UK_USERNAME)) {
+            return "Username đã tồn tại";
+        }
+        if (userRepository.existsByEmail(registerDTO.getEmail())) {
+            return "Email đã tồn tại";
+        }
+        if (userRepository.existsByUsername(registerDTO.getUsername())) {
+            return "Username đã tồn tại";
+        }
+        throw e;
+    }
+}
@@ -1,36 +1,53 @@
 package com.connect.social_connect.service;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.connect.social_connect.domain.Permission;
 import com.connect.social_connect.domain.Role;
 import com.connect.social_connect.domain.request.ReqCreateRoleDTO;
+import com.connect.social_connect.domain.request.ReqRolePermissionsDTO;
 import com.connect.social_connect.domain.request.ReqUpdateRoleDTO;
 import com.connect.social_connect.domain.response.ResPermissionDTO;
 import com.connect.social_connect.domain.response.ResRoleDTO;
+import com.connect.social_connect.domain.response.ResRolePermissionsDTO;
 import com.connect.social_connect.domain.response.ResultPaginationDTO;
 import com.connect.social_connect.repository.PermissionRepository;
 import com.connect.social_connect.repository.RoleRepository;
+import com.connect.social_connect.util.CursorPagination;
 import com.connect.social_connect.util.error.IdInvalidException;
 
 @Service
 public class RoleService {
 
+    // Non-null columns usable as keyset sort keys
+    private static final Set<String> CURSOR_SORTABLE = Set.of("id", "name");
+
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
+    private final AuthorizationService authorizationService;
 
-    public RoleService(RoleRepository roleRepository, PermissionRepository permissionRepository) {
+    public RoleService(RoleRepository roleRepository, PermissionRepository permissionRepository,
+            AuthorizationService authorizationService) {
         this.roleRepository = roleRepository;
         this.permissionRepository = permissionRepository;
+        this.authorizationService = authorizationService;
     }
 
     // Create a new role
+    @Transactional
     public Role createRole(ReqCreateRoleDTO dto) throws IdInvalidException {
         // Check if role name already exists
         if (roleRepository.existsByName(dto.getName())) {
@@ -48,7 +65,9 @@ public class RoleService {
             role.setPermissions(permissions);
         }
 
-        return roleRepository.save(role);
+        Role savedRole = roleRepository.save(role);
+        authorizationService.recordChange();
+        return savedRole;
     }
 
 
@@ -57,6 +76,23 @@ public class RoleService {
         return roleRepository.findById(id).orElse(null);
     }
 
+    // Fetch role by ID as DTO, permissions loaded with one projection query
+    public ResRoleDTO fetchRoleDTOById(Long id) {
+        Role role = roleRepository.findById(id).orElse(null);
+        if (role == null) {
+            return null;
+        }
+        Map<Long, List<ResPermissionDTO>> permissionsByRole = fetchPermissionsByRoleIds(List.of(role.getId()));
+        return convertToResRoleDTO(role, permissionsByRole.getOrDefault(role.getId(), new ArrayList<>()));
+    }
+
+    // Keyset page of roles after the given cursor, see CursorPagination
+    public ResultPaginationDTO fetchAllRolesByCursor(Specification<Role> spec, Pageable pageable, String after,
+            boolean count) throws IdInvalidException {
+        return CursorPagination.fetch(roleRepository, spec, pageable, CURSOR_SORTABLE, after, count,
+                this::convertToResRoleDTOs);
+    }
+
     // Fetch all roles with pagination
     public ResultPaginationDTO fetchAllRoles(Specification<Role> spec, Pageable pageable) {
         Page<Role> pageRole = roleRepository.findAll(spec, pageable);
@@ -71,16 +107,13 @@ public class RoleService {
 
         result.setMeta(meta);
 
-        List<ResRoleDTO> roleList = pageRole.getContent()
-                .stream()
-                .map(this::convertToResRoleDTO)
-                .collect(Collectors.toList());
-        result.setResult(roleList);
+        result.setResult(convertToResRoleDTOs(pageRole.getContent()));
 
         return result;
     }
 
     // Update role
+    @Transactional
     public Role updateRole(Long id, ReqUpdateRoleDTO dto) throws IdInvalidException {
         Role role = roleRepository.findById(id).orElse(null);
         if (role == null) {
@@ -109,11 +142,14 @@ public class RoleService {
             role.setPermissions(permissions);
         }
 
-        return roleRepository.save(role);
+        Role savedRole = roleRepository.save(role);
+        authorizationService.recordChange();
+        return savedRole;
     }
 
 
     // Delete role (with check for assigned users)
+    @Transactional
     public void deleteRole(Long id) throws IdInvalidException {
         Role role = roleRepository.findById(id).orElse(null);
         if (role == null) {
@@ -127,9 +163,11 @@ public class RoleService {
         }
 
         roleRepository.delete(role);
+        authorizationService.recordChange();
     }
 
     // Assign permissions to role (bulk assignment)
+    @Transactional
     public Role assignPermissions(Long roleId, List<Long> permissionIds) throws IdInvalidException {
         Role role = roleRepository.findById(roleId).orElse(null);
         if (role == null) {
@@ -139,7 +177,58 @@ public class RoleService {
         List<Permission> permissions = permissionRepository.findByIdIn(permissionIds);
         role.setPermissions(permissions);
 
-        return roleRepository.save(role);
+        Role savedRole = roleRepository.save(role);
+        authorizationService.recordChange();
+        return savedRole;
+    }
+
+    // Grant many permissions to many roles with one set-based INSERT
+    @Transactional
+    public ResRolePermissionsDTO grantPermissions(ReqRolePermissionsDTO dto) throws IdInvalidException {
+        Set<Long> roleIds = new LinkedHashSet<>(dto.getRoleIds());
+        Set<Long> permissionIds = new LinkedHashSet<>(dto.getPermissionIds());
+        validateRolePermissionIds(roleIds, permissionIds);
+
+        int changed = roleRepository.grantPermissions(roleIds, permissionIds);
+        afterRolePermissionsChanged(roleIds, changed);
+        return toResRolePermissionsDTO(roleIds, permissionIds, changed);
+    }
+
+    // Revoke many permissions from many roles with one set-based DELETE
+    @Transactional
+    public ResRolePermissionsDTO revokePermissions(ReqRolePermissionsDTO dto) throws IdInvalidException {
+        Set<Long> roleIds = new LinkedHashSet<>(dto.getRoleIds());
+        Set<Long> permissionIds = new LinkedHashSet<>(dto.getPermissionIds());
+        validateRolePermissionIds(roleIds, permissionIds);
+
+        int changed = roleRepository.revokePermissions(roleIds, permissionIds);
+        afterRolePermissionsChanged(roleIds, changed);
+        return toResRolePermissionsDTO(roleIds, permissionIds, changed);
+    }
+
+    private void validateRolePermissionIds(Set<Long> roleIds, Set<Long> permissionIds) throws IdInvalidException {
+        if (roleRepository.countByIdIn(roleIds) != roleIds.size()) {
+            throw new IdInvalidException("Một hoặc nhiều role không tồn tại");
+        }
+        if (permissionRepository.countByIdIn(permissionIds) != permissionIds.size()) {
+            throw new IdInvalidException("Một hoặc nhiều permission không tồn tại");
+        }
+    }
+
+    private void afterRolePermissionsChanged(Set<Long> roleIds, int changed) {
+        if (changed == 0) {
+            return;
+        }
+        roleRepository.bumpVersions(roleIds, Instant.now());
+        authorizationService.recordChange();
+    }
+
+    private ResRolePermissionsDTO toResRolePermissionsDTO(Set<Long> roleIds, Set<Long> permissionIds, int changed) {
+        ResRolePermissionsDTO res = new ResRolePermissionsDTO();
+        res.setRoleIds(new ArrayList<>(roleIds));
+        res.setPermissionIds(new ArrayList<>(permissionIds));
+        res.setChanged(changed);
+        return res;
     }
 
     // Check if role name exists
@@ -147,7 +236,47 @@ public class RoleService {
         return roleRepository.existsByName(name);
     }
 
+    // One query for the permissions of the whole page instead of one per role
+    private List<ResRoleDTO> convertToResRoleDTOs(List<Role> roles) {
+        List<Long> roleIds = roles.stream().map(Role::getId).collect(Collectors.toList());
+        Map<Long, List<ResPermissionDTO>> permissionsByRole = fetchPermissionsByRoleIds(roleIds);
+        return roles.stream()
+                .map(role -> convertToResRoleDTO(role, permissionsByRole.getOrDefault(role.getId(), new ArrayList<>())))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, List<ResPermissionDTO>> fetchPermissionsByRoleIds(List<Long> roleIds) {
+        Map<Long, List<ResPermissionDTO>> permissionsByRole = new HashMap<>();
+        if (roleIds.isEmpty()) {
+            return permissionsByRole;
+        }
+        for (Object[] row : roleRepository.findPermissionRowsByRoleIds(roleIds)) {
+            ResPermissionDTO dto = new ResPermissionDTO();
+            dto.setId((Long) row[1]);
+            dto.setName((String) row[2]);
+            dto.setApiPath((String) row[3]);
+            dto.setMethod((String) row[4]);
+            dto.setModule((String) row[5]);
+            dto.setCreatedAt((Instant) row[6]);
+            dto.setUpdatedAt((Instant) row[7]);
+            permissionsByRole.computeIfAbsent((Long) row[0], roleId -> new ArrayList<>()).add(dto);
+        }
+        return permissionsByRole;
+    }
+
     // DTO Converters
+    public ResRoleDTO convertToResRoleDTO(Role role, List<ResPermissionDTO> permissions) {
+        ResRoleDTO dto = new ResRoleDTO();
+        dto.setId(role.getId());
+        dto.setName(role.getName());
+        dto.setDescription(role.getDescription());
+        dto.setActive(role.isActive());
+        dto.setCreatedAt(role.getCreatedAt());
+        dto.setUpdatedAt(role.getUpdatedAt());
+        dto.setPermissions(permissions);
+        return dto;
+    }
+
     public ResRoleDTO convertToResRoleDTO(Role role) {
         ResRoleDTO dto = new ResRoleDTO();
         dto.setId(role.getId());
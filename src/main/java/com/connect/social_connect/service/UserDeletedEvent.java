@@ -0,0 +1,8 @@
+package com.connect.social_connect.service;
+
+/**
+ * Published in the transaction that deletes a user. The in-memory indexes drop
+ * the user after commit, so a delete that rolls back leaves them untouched.
+ */
+public record UserDeletedEvent(Long userId) {
+}
@@ -0,0 +1,58 @@
+package com.connect.social_connect.service;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import org.springframework.data.domain.PageRequest;
+
+import com.connect.social_connect.repository.UserRepository;
+import com.connect.social_connect.repository.UserSearchRow;
+
+/**
+ * Bulk load of the users table for an in-memory user index, in keyset-paged
+ * projection queries. The load runs while live writes keep hitting the index,
+ * so the sink must only add users the index does not hold yet (a live upsert
+ * is newer than the row read here), and users removed during the load are
+ * reported through removed() and skipped, so the load never resurrects them.
+ */
+class UserIndexLoader {
+
+    private final UserRepository userRepository;
+    private final Set<Long> removedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading;
+
+    UserIndexLoader(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    void removed(Long userId) {
+        if (loading) {
+            removedWhileLoading.add(userId);
+        }
+    }
+
+    synchronized void load(int batchSize, Consumer<UserSearchRow> sink) {
+        removedWhileLoading.clear();
+        loading = true;
+        try {
+            long afterId = 0;
+            while (true) {
+                List<UserSearchRow> rows = userRepository.findSearchRowsAfter(afterId, PageRequest.of(0, batchSize));
+                for (UserSearchRow row : rows) {
+                    if (!removedWhileLoading.contains(row.id())) {
+                        sink.accept(row);
+                    }
+                    afterId = row.id();
+                }
+                if (rows.size() < batchSize) {
+                    break;
+                }
+            }
+        } finally {
+            loading = false;
+            removedWhileLoading.clear();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.connect.social_connect.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.connect.social_connect.domain.User;
+import com.connect.social_connect.repository.UserRepository;
+import com.connect.social_connect.util.UserSearchIndex;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Owns the UserSearchIndex: loads it from the users table at startup and keeps
+ * it current through the write hooks UserService calls after each save. The
+ * index is per node, so users created, renamed or deleted on other nodes only
+ * show up with the next scheduled rebuild: at most rebuild-interval plus one
+ * rebuild stale. While a rebuild runs, writes go to both the live and the new
+ * index, which is filled through a UserIndexLoader.
+ */
+@Service
+@Slf4j
+public class UserSearchService {
+
+    private final UserIndexLoader loader;
+    private final int maxCandidates;
+
+    private volatile UserSearchIndex index;
+    private volatile UserSearchIndex building;
+
+    @Value("${app.user-search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${app.user-search.rebuild-batch-size:5000}")
+    private int rebuildBatchSize;
+
+    public UserSearchService(UserRepository userRepository,
+            @Value("${app.user-search.max-candidates:10000}") int maxCandidates,
+            MeterRegistry meterRegistry) {
+        this.loader = new UserIndexLoader(userRepository);
+        this.maxCandidates = maxCandidates;
+        this.index = new UserSearchIndex(maxCandidates);
+
+        Gauge.builder("user.search.index.size", this, service -> service.index.size())
+                .description("Users in the in-memory search index")
+                .register(meterRegistry);
+    }
+
+    public List<Long> search(String query, int limit) {
+        return index.search(query, limit);
+    }
+
+    public void indexUser(User user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        // building is read before index: rebuild publishes index before clearing building
+        UserSearchIndex next = building;
+        UserSearchIndex current = index;
+        current.upsert(user.getId(), user.getUsername(), user.getDisplayName());
+        if (next != null && next != current) {
+            next.upsert(user.getId(), user.getUsername(), user.getDisplayName());
+        }
+    }
+
+    public void removeUser(Long userId) {
+        UserSearchIndex next = building;
+        UserSearchIndex current = index;
+        current.remove(userId);
+        if (next != null && next != current) {
+            loader.removed(userId);
+            next.remove(userId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    // Load every user into a fresh index with keyset-paged projection queries, then swap it in
+    @Scheduled(initialDelayString = "${app.user-search.rebuild-interval-ms:600000}",
+            fixedDelayString = "${app.user-search.rebuild-interval-ms:600000}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        UserSearchIndex next = new UserSearchIndex(maxCandidates);
+        building = next;
+        try {
+            loader.load(rebuildBatchSize, row -> next.addIfAbsent(row.id(), row.username(), row.displayName()));
+            index = next;
+        } finally {
+            building = null;
+        }
+        log.info("User search index rebuilt with {} users in {} ms", next.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+}
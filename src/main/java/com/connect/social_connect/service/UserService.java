@@ -1,13 +1,26 @@
 package com.connect.social_connect.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 import com.connect.social_connect.domain.Role;
 import com.connect.social_connect.domain.User;
@@ -16,26 +29,91 @@ import com.connect.social_connect.domain.request.ReqUpdateProfileDTO;
 import com.connect.social_connect.domain.response.ResAccountDTO;
 import com.connect.social_connect.domain.response.ResCreateUserDTO;
 import com.connect.social_connect.domain.response.ResLoginDTO;
+import com.connect.social_connect.domain.response.ResPublicProfileBatchDTO;
 import com.connect.social_connect.domain.response.ResPublicProfileDTO;
 import com.connect.social_connect.domain.response.ResUserDTO;
 import com.connect.social_connect.domain.response.ResUserProfileDTO;
 import com.connect.social_connect.domain.response.ResultPaginationDTO;
 import com.connect.social_connect.repository.RoleRepository;
+import com.connect.social_connect.repository.UserAdminRow;
+import com.connect.social_connect.repository.UserPublicProfileRow;
 import com.connect.social_connect.repository.UserRepository;
+import com.connect.social_connect.util.CursorPagination;
+import com.connect.social_connect.util.SecurityUtil;
+import com.connect.social_connect.util.UserPrincipal;
 import com.connect.social_connect.util.constant.AuthProviderEnum;
 import com.connect.social_connect.util.error.IdInvalidException;
 
 @Service
 public class UserService {
 
+    private static final String CURRENT_USER_ATTRIBUTE = UserService.class.getName() + ".CURRENT_USER";
+
+    // Non-null columns usable as keyset sort keys
+    private static final Set<String> CURSOR_SORTABLE = Set.of("id", "createdAt", "username", "email");
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
-
-    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder) {
+    private final AuthorizationService authorizationService;
+    private final RefreshSessionService refreshSessionService;
+    private final PublicProfileCache publicProfileCache;
+    private final UserSearchService userSearchService;
+    private final MentionService mentionService;
+    private final AvailabilityService availabilityService;
+    private final UsernameAllocator usernameAllocator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Default USER role, looked up once and dropped on RBAC changes
+    private volatile Role defaultRole;
+
+    @Value("${app.users.batch-max-ids:100}")
+    private int batchMaxIds;
+
+    @Value("${app.user-search.max-results:50}")
+    private int searchMaxResults;
+
+    public UserService(UserRepository userRepository, RoleRepository roleRepository, PasswordEncoder passwordEncoder,
+            AuthorizationService authorizationService, RefreshSessionService refreshSessionService,
+            PublicProfileCache publicProfileCache, UserSearchService userSearchService,
+            MentionService mentionService, AvailabilityService availabilityService,
+            UsernameAllocator usernameAllocator, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.passwordEncoder = passwordEncoder;
+        this.authorizationService = authorizationService;
+        this.refreshSessionService = refreshSessionService;
+        this.publicProfileCache = publicProfileCache;
+        this.userSearchService = userSearchService;
+        this.mentionService = mentionService;
+        this.availabilityService = availabilityService;
+        this.usernameAllocator = usernameAllocator;
+        this.eventPublisher = eventPublisher;
+    }
+
+     //Get the full User entity of the caller, loaded at most once per request
+    public User getCurrentUser() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null
+                && attributes.getAttribute(CURRENT_USER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof User cached) {
+            return cached;
+        }
+
+        User user = loadCurrentUser();
+        if (attributes != null && user != null) {
+            attributes.setAttribute(CURRENT_USER_ATTRIBUTE, user, RequestAttributes.SCOPE_REQUEST);
+        }
+        return user;
+    }
+
+    private User loadCurrentUser() {
+        Optional<UserPrincipal> principal = SecurityUtil.getCurrentPrincipal();
+        if (principal.isPresent()) {
+            return userRepository.findById(principal.get().userId()).orElse(null);
+        }
+        return SecurityUtil.getCurrentUserLogin()
+                .map(userRepository::findByEmail)
+                .orElse(null);
     }
 
      //Fetch user by ID
@@ -43,6 +121,76 @@ public class UserService {
         return userRepository.findById(id).orElse(null);
     }
 
+    // Public profiles of several users: cached ones first, the rest from one IN query
+    public ResPublicProfileBatchDTO fetchPublicProfiles(List<Long> ids) throws IdInvalidException {
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        if (requested.isEmpty()) {
+            throw new IdInvalidException("Danh sách ids không được để trống");
+        }
+        if (requested.size() > batchMaxIds) {
+            throw new IdInvalidException("Chỉ được lấy tối đa " + batchMaxIds + " người dùng mỗi lần");
+        }
+
+        Map<Long, PublicProfileCache.Entry> found = publicProfileCache.getAll(requested, missing -> {
+            Map<Long, PublicProfileCache.Entry> loaded = new HashMap<>();
+            for (UserPublicProfileRow row : userRepository.findPublicProfileRowsByIdIn(new ArrayList<>(missing))) {
+                ResPublicProfileDTO dto = new ResPublicProfileDTO();
+                dto.setId(row.id());
+                dto.setUsername(row.username());
+                dto.setDisplayName(row.displayName());
+                dto.setBio(row.bio());
+                dto.setAvatarUrl(row.avatarUrl());
+                dto.setCoverUrl(row.coverUrl());
+                dto.setCreatedAt(row.createdAt());
+                loaded.put(dto.getId(), new PublicProfileCache.Entry(dto,
+                        PublicProfileCache.etagOf(dto.getId(), row.updatedAt(), dto.getCreatedAt())));
+            }
+            return loaded;
+        });
+
+        List<ResPublicProfileDTO> profiles = new ArrayList<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : requested) {
+            PublicProfileCache.Entry entry = found.get(id);
+            if (entry != null) {
+                profiles.add(entry.profile());
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        ResPublicProfileBatchDTO result = new ResPublicProfileBatchDTO();
+        result.setProfiles(profiles);
+        result.setMissingIds(missingIds);
+        return result;
+    }
+
+    // Ranked username / display name matches from the in-memory search index
+    public List<ResPublicProfileDTO> searchUsers(String query, int limit) throws IdInvalidException {
+        if (query == null || query.isBlank()) {
+            throw new IdInvalidException("Từ khóa tìm kiếm không được để trống");
+        }
+        List<Long> ids = userSearchService.search(query, Math.min(Math.max(limit, 1), searchMaxResults));
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return fetchPublicProfiles(ids).getProfiles();
+    }
+
+    // Public profile with its ETag through PublicProfileCache, null if the user does not exist
+    public PublicProfileCache.Entry fetchPublicProfile(Long id) {
+        return publicProfileCache.get(id, key -> userRepository.findById(key)
+                .map(user -> new PublicProfileCache.Entry(convertToResPublicProfileDTO(user),
+                        PublicProfileCache.etagOf(user)))
+                .orElse(null));
+    }
+
+    // Admin detail view from a column projection, null if the user does not exist
+    public ResUserDTO fetchUserAdminDTOById(Long id) {
+        return userRepository.findAdminRowById(id).map(this::convertAdminRow).orElse(null);
+    }
+
      //Update user profile
     public User updateUserProfile(Long id, ReqUpdateProfileDTO dto) {
         User user = userRepository.findById(id).orElse(null);
@@ -63,12 +211,23 @@ public class UserService {
             user.setCoverUrl(dto.getCoverUrl());
         }
 
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        publicProfileCache.invalidate(id);
+        userSearchService.indexUser(saved);
+        mentionService.indexUser(saved);
+        return saved;
+    }
+
+    // Keyset page of users after the given cursor, see CursorPagination
+    public ResultPaginationDTO fetchAllUsersByCursor(Specification<User> spec, Pageable pageable, String after,
+            boolean count) throws IdInvalidException {
+        return CursorPagination.fetch(userRepository, spec, pageable, CURSOR_SORTABLE, after, count,
+                users -> users.stream().map(this::convertToResUserDTO).collect(Collectors.toList()));
     }
 
-     //Fetch all users
+     //Fetch all users (column projection, no User entities are loaded)
     public ResultPaginationDTO fetchAllUsers(Specification<User> spec, Pageable pageable) {
-        Page<User> pageUser = userRepository.findAll(spec, pageable);
+        Page<UserAdminRow> pageUser = userRepository.findAdminRows(spec, pageable);
 
         ResultPaginationDTO result = new ResultPaginationDTO();
         ResultPaginationDTO.Meta meta = new ResultPaginationDTO.Meta();
@@ -82,7 +241,7 @@ public class UserService {
 
         List<ResUserDTO> userList = pageUser.getContent()
                 .stream()
-                .map(this::convertToResUserDTO)
+                .map(this::convertAdminRow)
                 .collect(Collectors.toList());
         result.setResult(userList);
 
@@ -92,6 +251,7 @@ public class UserService {
     //Admin User
 
      //Update user role
+    @Transactional
     public User updateUserRole(Long userId, Long roleId) throws IdInvalidException {
         User user = userRepository.findById(userId).orElse(null);
         if (user == null) {
@@ -104,16 +264,31 @@ public class UserService {
         }
 
         user.setRole(role);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        authorizationService.revokeTokens(userId);
+        return savedUser;
     }
 
      //Delete user
+    @Transactional
     public void deleteUser(Long id) throws IdInvalidException {
         User user = userRepository.findById(id).orElse(null);
         if (user == null) {
             throw new IdInvalidException("User với id = " + id + " không tồn tại");
         }
+        refreshSessionService.revokeAll(id);
         userRepository.delete(user);
+        authorizationService.revokeTokens(id);
+        eventPublisher.publishEvent(new UserDeletedEvent(id));
+    }
+
+    // Only once the delete has committed: earlier, a concurrent read could re-cache the profile,
+    // and a foreign-key violation at commit would leave the user unsearchable
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserDeleted(UserDeletedEvent event) {
+        publicProfileCache.invalidate(event.userId());
+        userSearchService.removeUser(event.userId());
+        mentionService.removeUser(event.userId());
     }
 
     //DTO Converters
@@ -154,6 +329,29 @@ public class UserService {
         return dto;
     }
 
+     //Convert admin projection row to ResUserDTO
+    private ResUserDTO convertAdminRow(UserAdminRow row) {
+        ResUserDTO dto = new ResUserDTO();
+        dto.setId(row.id());
+        dto.setUsername(row.username());
+        dto.setEmail(row.email());
+        dto.setDisplayName(row.displayName());
+        dto.setAvatarUrl(row.avatarUrl());
+        dto.setAuthProvider(row.authProvider() != null ? row.authProvider().name() : null);
+        dto.setIsEmailVerified(row.isEmailVerified());
+        dto.setCreatedAt(row.createdAt());
+        dto.setUpdatedAt(row.updatedAt());
+
+        if (row.roleId() != null) {
+            ResUserDTO.RoleDTO roleDTO = new ResUserDTO.RoleDTO();
+            roleDTO.setId(row.roleId());
+            roleDTO.setName(row.roleName());
+            dto.setRole(roleDTO);
+        }
+
+        return dto;
+    }
+
      //Convert User to ResUserDTO
     public ResUserDTO convertToResUserDTO(User user) {
         ResUserDTO dto = new ResUserDTO();
@@ -181,10 +379,33 @@ public class UserService {
     public User handleCreateUser(User user) {
         // Assign default USER role if not set
         if (user.getRole() == null) {
-            Role userRole = roleRepository.findByName("USER");
-            user.setRole(userRole);
+            user.setRole(getDefaultRole());
         }
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        onUserCreated(saved);
+        return saved;
+    }
+
+     //Default USER role, cached; only its id is used as the foreign key on insert
+    public Role getDefaultRole() {
+        Role role = defaultRole;
+        if (role == null) {
+            role = roleRepository.findByName("USER");
+            defaultRole = role;
+        }
+        return role;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRbacChanged(RbacChangedEvent event) {
+        defaultRole = null;
+    }
+
+     //Feed a newly committed user to the in-memory availability, search and mention indexes
+    public void onUserCreated(User saved) {
+        availabilityService.recordUser(saved);
+        userSearchService.indexUser(saved);
+        mentionService.indexUser(saved);
     }
 
      //Get user by email (username)
@@ -192,28 +413,23 @@ public class UserService {
         return userRepository.findByEmail(email);
     }
 
-     //Update user refresh token
-    public void updateUserToken(String token, String email) {
+     //Replace the stored password hash (used for transparent cost upgrades)
+    public void updatePasswordHash(String email, String passwordHash) {
         User user = userRepository.findByEmail(email);
         if (user != null) {
-            user.setRefreshToken(token);
+            user.setPasswordHash(passwordHash);
             userRepository.save(user);
         }
     }
 
-     //Get user by refresh token
-    public User getUserByRefreshToken(String token) {
-        return userRepository.findByRefreshToken(token);
-    }
-
-     //Check if email already exists
+     //Check if email already exists (Bloom filter first, see AvailabilityService)
     public boolean isEmailExist(String email) {
-        return userRepository.existsByEmail(email);
+        return availabilityService.isEmailTaken(email);
     }
 
-     //Check if username already exists
+     //Check if username already exists (Bloom filter first, see AvailabilityService)
     public boolean isUsernameExist(String username) {
-        return userRepository.existsByUsername(username);
+        return availabilityService.isUsernameTaken(username);
     }
 
      //Convert User entity to ResCreateUserDTO
@@ -287,7 +503,10 @@ public class UserService {
             // Update avatar if user doesn't have one
             if (existingUser.getAvatarUrl() == null && picture != null) {
                 existingUser.setAvatarUrl(picture);
-                return userRepository.save(existingUser);
+                User saved = userRepository.save(existingUser);
+                publicProfileCache.invalidate(saved.getId());
+                mentionService.indexUser(saved);
+                return saved;
             }
             return existingUser;
         }
@@ -295,22 +514,41 @@ public class UserService {
         // Create new user with Google data
         User newUser = new User();
         newUser.setEmail(email);
-        newUser.setUsername(generateUniqueUsername(email));
         newUser.setDisplayName(name != null ? name : email.split("@")[0]);
         newUser.setAvatarUrl(picture);
         newUser.setAuthProvider(AuthProviderEnum.GOOGLE);
         newUser.setIsEmailVerified(true); // Google users are automatically verified
 
         // Assign default USER role
-        Role userRole = roleRepository.findByName("USER");
-        newUser.setRole(userRole);
+        newUser.setRole(getDefaultRole());
 
-        return userRepository.save(newUser);
+        User saved = saveWithAllocatedUsername(newUser);
+        if (saved == newUser) {
+            onUserCreated(saved);
+        }
+        return saved;
     }
 
-    private String generateUniqueUsername(String email) {
-        String baseUsername = email.split("@")[0].toLowerCase().replaceAll("[^a-z0-9]", "");
-        String username = baseUsername;
-        return username;
+    // Insert under an allocated username, retrying once if another node took the name first
+    private User saveWithAllocatedUsername(User newUser) {
+        for (int attempt = 1;; attempt++) {
+            String username = usernameAllocator.allocate(newUser.getEmail());
+            newUser.setUsername(username);
+            try {
+                userRepository.saveAndFlush(newUser);
+                return newUser;
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent sign-up with the same Google account won, use its user
+                User existing = userRepository.findByEmail(newUser.getEmail());
+                if (existing != null) {
+                    return existing;
+                }
+                if (attempt >= 2) {
+                    throw e;
+                }
+            } finally {
+                usernameAllocator.release(username);
+            }
+        }
     }
 }
@@ -0,0 +1,95 @@
+package com.connect.social_connect.service;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.stereotype.Service;
+
+import com.connect.social_connect.repository.UserRepository;
+
+/**
+ * Picks usernames for accounts that do not choose one (OAuth2 sign-ups). The
+ * base comes from the email local part; "alice" is used as is when free,
+ * otherwise the smallest free numeric suffix ("alice1", "alice2", ...). All
+ * taken names sharing the base are read with one prefix query, and names handed
+ * out but not yet saved are held in memory so concurrent sign-ups on this node
+ * get different names. Callers release the name once the insert has finished.
+ */
+@Service
+public class UsernameAllocator {
+
+    private static final String FALLBACK_BASE = "user";
+    private static final int MAX_BASE_LENGTH = 40;
+
+    private final UserRepository userRepository;
+    private final Set<String> reserved = ConcurrentHashMap.newKeySet();
+
+    public UsernameAllocator(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    // Reserve a free username derived from the email; pair with release()
+    public String allocate(String email) {
+        String base = baseOf(email);
+        List<String> taken = userRepository.findUsernamesLike(base + "%");
+
+        // The smallest free suffix is at most taken.size(), larger ones need not be tracked
+        BitSet used = new BitSet();
+        for (String username : taken) {
+            markSuffix(used, base, username, taken.size());
+        }
+        // Reservations can appear while we choose, so claim and move on if another thread won
+        for (int suffix = used.nextClearBit(0);; suffix = used.nextClearBit(suffix + 1)) {
+            String candidate = suffix == 0 ? base : base + suffix;
+            if (!reserved.contains(candidate) && reserved.add(candidate)) {
+                return candidate;
+            }
+        }
+    }
+
+    public void release(String username) {
+        if (username != null) {
+            reserved.remove(username);
+        }
+    }
+
+    // Lower-case alphanumerics of the email local part
+    static String baseOf(String email) {
+        String local = email == null ? "" : email.split("@")[0];
+        String base = local.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]", "");
+        if (base.isEmpty()) {
+            return FALLBACK_BASE;
+        }
+        return base.length() > MAX_BASE_LENGTH ? base.substring(0, MAX_BASE_LENGTH) : base;
+    }
+
+    // Suffix 0 is the bare base, n is base + n; anything else sharing the prefix is ignored
+    private static void markSuffix(BitSet used, String base, String username, int maxSuffix) {
+        String name = username.toLowerCase(Locale.ROOT);
+        if (!name.startsWith(base)) {
+            return;
+        }
+        String rest = name.substring(base.length());
+        if (rest.isEmpty()) {
+            used.set(0);
+            return;
+        }
+        if (rest.charAt(0) == '0' || rest.length() > String.valueOf(maxSuffix).length()) {
+            return;
+        }
+        int suffix = 0;
+        for (int i = 0; i < rest.length(); i++) {
+            char c = rest.charAt(i);
+            if (c < '0' || c > '9') {
+                return;
+            }
+            suffix = suffix * 10 + (c - '0');
+        }
+        if (suffix <= maxSuffix) {
+            used.set(suffix);
+        }
+    }
+}
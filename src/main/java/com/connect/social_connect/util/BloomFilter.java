@@ -0,0 +1,150 @@
+package com.connect.social_connect.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Concurrent Bloom filter over strings. Bits live in an AtomicLongArray and are
+ * set with CAS, so adds need no lock and never block readers. Probe positions
+ * come from double hashing of a 128-bit MurmurHash3 of the UTF-8 bytes.
+ * mightContain has no false negatives; false positives occur at about the
+ * configured rate while the filter holds at most the expected number of keys.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    public void put(String key) {
+        long[] hash = murmur3(key.getBytes(StandardCharsets.UTF_8));
+        long combined = hash[0];
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+            combined += hash[1];
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long[] hash = murmur3(key.getBytes(StandardCharsets.UTF_8));
+        long combined = hash[0];
+        for (int i = 0; i < hashCount; i++) {
+            long index = (combined & Long.MAX_VALUE) % bitCount;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += hash[1];
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public int hashCount() {
+        return hashCount;
+    }
+
+    // MurmurHash3 x64 128-bit, seed 0
+    private static long[] murmur3(byte[] data) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = 0;
+        long h2 = 0;
+        int blocks = data.length / 16;
+
+        for (int i = 0; i < blocks; i++) {
+            long k1 = getLong(data, i * 16);
+            long k2 = getLong(data, i * 16 + 8);
+            h1 ^= mixK1(k1, c1, c2);
+            h1 = Long.rotateLeft(h1, 27) + h2;
+            h1 = h1 * 5 + 0x52dce729;
+            h2 ^= mixK2(k2, c1, c2);
+            h2 = Long.rotateLeft(h2, 31) + h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        long k1 = 0;
+        long k2 = 0;
+        int offset = blocks * 16;
+        switch (data.length & 15) {
+            case 15: k2 ^= (long) (data[offset + 14] & 0xff) << 48;
+            case 14: k2 ^= (long) (data[offset + 13] & 0xff) << 40;
+            case 13: k2 ^= (long) (data[offset + 12] & 0xff) << 32;
+            case 12: k2 ^= (long) (data[offset + 11] & 0xff) << 24;
+            case 11: k2 ^= (long) (data[offset + 10] & 0xff) << 16;
+            case 10: k2 ^= (long) (data[offset + 9] & 0xff) << 8;
+            case 9: k2 ^= data[offset + 8] & 0xff;
+                h2 ^= mixK2(k2, c1, c2);
+            case 8: k1 ^= (long) (data[offset + 7] & 0xff) << 56;
+            case 7: k1 ^= (long) (data[offset + 6] & 0xff) << 48;
+            case 6: k1 ^= (long) (data[offset + 5] & 0xff) << 40;
+            case 5: k1 ^= (long) (data[offset + 4] & 0xff) << 32;
+            case 4: k1 ^= (long) (data[offset + 3] & 0xff) << 24;
+            case 3: k1 ^= (long) (data[offset + 2] & 0xff) << 16;
+            case 2: k1 ^= (long) (data[offset + 1] & 0xff) << 8;
+            case 1: k1 ^= data[offset] & 0xff;
+                h1 ^= mixK1(k1, c1, c2);
+            default:
+                break;
+        }
+
+        h1 ^= data.length;
+        h2 ^= data.length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+        h1 += h2;
+        h2 += h1;
+        return new long[] { h1, h2 };
+    }
+
+    private static long mixK1(long k1, long c1, long c2) {
+        k1 *= c1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * c2;
+    }
+
+    private static long mixK2(long k2, long c1, long c2) {
+        k2 *= c2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * c1;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static long getLong(byte[] data, int offset) {
+        return (data[offset] & 0xffL)
+                | (data[offset + 1] & 0xffL) << 8
+                | (data[offset + 2] & 0xffL) << 16
+                | (data[offset + 3] & 0xffL) << 24
+                | (data[offset + 4] & 0xffL) << 32
+                | (data[offset + 5] & 0xffL) << 40
+                | (data[offset + 6] & 0xffL) << 48
+                | (data[offset + 7] & 0xffL) << 56;
+    }
+}
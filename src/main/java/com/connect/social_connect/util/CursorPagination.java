@@ -0,0 +1,173 @@
+package com.connect.social_connect.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import com.connect.social_connect.domain.response.ResultPaginationDTO;
+import com.connect.social_connect.util.error.IdInvalidException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Keyset ("cursor") pagination for listings that otherwise use offset paging.
+ * The next page is fetched with WHERE (sort key, id) > (last row) and LIMIT n+1,
+ * so its cost does not grow with depth, and COUNT is only run on request.
+ * The cursor is an opaque URL-safe token holding the sort key values of the last
+ * row; it works with any @Filter specification because the keyset predicate is
+ * simply ANDed with it.
+ *
+ * The user, role and permission listings opt in with cursor=true or an after
+ * token (plus count=true for the total); offset paging stays the default.
+ */
+public final class CursorPagination {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String ID = "id";
+
+    private CursorPagination() {
+    }
+
+    /**
+     * Fetch one page after the given cursor.
+     *
+     * @param sortable properties allowed in the sort, all non-null columns (keyset
+     *                 comparison cannot order NULLs)
+     * @param after    cursor from the previous page's meta.next, null or empty for the first page
+     * @param count    also run COUNT for meta.total (otherwise total is -1)
+     * @param mapper   converts the whole page at once, so callers can batch-load associations
+     */
+    public static <T, R> ResultPaginationDTO fetch(JpaSpecificationExecutor<T> repository, Specification<T> spec,
+            Pageable pageable, Set<String> sortable, String after, boolean count, Function<List<T>, List<R>> mapper)
+            throws IdInvalidException {
+        Sort sort = resolveSort(pageable.getSort(), sortable);
+        ScrollPosition position = after == null || after.isEmpty()
+                ? ScrollPosition.keyset()
+                : decode(after, sort);
+        Specification<T> where = spec != null ? spec : Specification.where(null);
+
+        int size = pageable.getPageSize();
+        Window<T> window = repository.findBy(where, query -> query.sortBy(sort).limit(size).scroll(position));
+
+        ResultPaginationDTO result = new ResultPaginationDTO();
+        ResultPaginationDTO.Meta meta = new ResultPaginationDTO.Meta();
+        meta.setPageSize(size);
+        meta.setTotal(count ? repository.count(where) : -1);
+        meta.setHasNext(window.hasNext());
+        if (window.hasNext() && !window.isEmpty()) {
+            meta.setNext(encode((KeysetScrollPosition) window.positionAt(window.size() - 1)));
+        }
+        result.setMeta(meta);
+
+        result.setResult(mapper.apply(window.getContent()));
+        return result;
+    }
+
+    // Requested sort restricted to the allowed properties, always ending with id as tie-breaker
+    private static Sort resolveSort(Sort requested, Set<String> sortable) throws IdInvalidException {
+        for (Sort.Order order : requested) {
+            if (!sortable.contains(order.getProperty())) {
+                throw new IdInvalidException("Không hỗ trợ sắp xếp theo '" + order.getProperty()
+                        + "' ở chế độ cursor. Cho phép: " + sortable);
+            }
+        }
+        Sort sort = requested.isSorted() ? requested : Sort.by(ID);
+        if (sort.getOrderFor(ID) == null) {
+            sort = sort.and(Sort.by(ID));
+        }
+        return sort;
+    }
+
+    // Keys are written as [type, value] so they decode back to the attribute's Java type
+    public static String encode(KeysetScrollPosition position) {
+        Map<String, List<String>> keys = new LinkedHashMap<>();
+        position.getKeys().forEach((property, value) -> keys.put(property, encodeValue(value)));
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(keys);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (Exception e) {
+            throw new IllegalStateException("Không thể tạo cursor", e);
+        }
+    }
+
+    static ScrollPosition decode(String cursor, Sort sort) throws IdInvalidException {
+        Map<String, List<String>> raw;
+        try {
+            byte[] json = Base64.getUrlDecoder().decode(cursor.getBytes(StandardCharsets.US_ASCII));
+            raw = MAPPER.readValue(json, new TypeReference<Map<String, List<String>>>() {
+            });
+        } catch (Exception e) {
+            throw new IdInvalidException("Cursor không hợp lệ");
+        }
+
+        // A cursor is only valid for the sort it was produced with
+        Set<String> expected = sort.stream().map(Sort.Order::getProperty).collect(Collectors.toSet());
+        if (raw == null || !raw.keySet().equals(expected)) {
+            throw new IdInvalidException("Cursor không khớp với tham số sort");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : raw.entrySet()) {
+            keys.put(entry.getKey(), decodeValue(entry.getValue()));
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    private static List<String> encodeValue(Object value) {
+        if (value instanceof Long) {
+            return List.of("L", value.toString());
+        }
+        if (value instanceof Integer) {
+            return List.of("I", value.toString());
+        }
+        if (value instanceof Instant instant) {
+            return List.of("T", instant.toString());
+        }
+        if (value instanceof Boolean) {
+            return List.of("B", value.toString());
+        }
+        if (value instanceof String) {
+            return List.of("S", (String) value);
+        }
+        throw new IllegalStateException("Kiểu khóa cursor không được hỗ trợ: " + value);
+    }
+
+    private static Object decodeValue(List<String> typed) throws IdInvalidException {
+        if (typed == null || typed.size() != 2 || typed.get(1) == null) {
+            throw new IdInvalidException("Cursor không hợp lệ");
+        }
+        String value = typed.get(1);
+        try {
+            switch (typed.get(0)) {
+                case "L":
+                    return Long.valueOf(value);
+                case "I":
+                    return Integer.valueOf(value);
+                case "T":
+                    return Instant.parse(value);
+                case "B":
+                    return Boolean.valueOf(value);
+                case "S":
+                    return value;
+                default:
+                    throw new IdInvalidException("Cursor không hợp lệ");
+            }
+        } catch (RuntimeException e) {
+            throw new IdInvalidException("Cursor không hợp lệ");
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package com.connect.social_connect.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie for @mention autocomplete. Keys are the normalized username and
+ * each word of the display name (see UserSearchIndex.normalize). Nodes, child
+ * links and the per-node user lists live in parallel primitive arrays, so the
+ * trie holds no object per node or per posting.
+ *
+ * Suggestions come in two tiers: users the caller ranks as close (friends, chat
+ * co-members) are matched directly against their keys, then the rest is filled
+ * with a depth-first walk below the prefix node that stops as soon as enough
+ * users are found, so its cost depends on the limit and not on the user count.
+ */
+public class MentionTrie {
+
+    public record Suggestion(long userId, String username, String displayName, String avatarUrl) {
+    }
+
+    // Exclusion id for suggest when no user is to be skipped
+    public static final long NO_USER = Long.MIN_VALUE;
+
+    private static final int ROOT = 0;
+    private static final int NONE = -1;
+    private static final long SLOT_MASK = 0xFFFFFFFFL;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Nodes: label char, first child, next sibling, head of the user list ending here
+    private char[] label = new char[1024];
+    private int[] firstChild = new int[1024];
+    private int[] nextSibling = new int[1024];
+    private int[] entryHead = new int[1024];
+    private int nodeCount;
+    // Pruned nodes, chained through nextSibling and reused before the arrays grow
+    private int freeNode = NONE;
+    private int freeNodeCount;
+
+    // User lists: singly linked through entryNext, freed slots are reused
+    private int[] entrySlot = new int[1024];
+    private int[] entryNext = new int[1024];
+    private int entryCount;
+    private int freeEntry = NONE;
+
+    // Users by slot
+    private long[] userIds = new long[256];
+    private String[] usernames = new String[256];
+    private String[] displayNames = new String[256];
+    private String[] avatarUrls = new String[256];
+    private String[][] keys = new String[256][];
+    private int slotCount;
+    private final List<Integer> freeSlots = new ArrayList<>();
+    private final Map<Long, Integer> slotByUser = new HashMap<>();
+
+    public MentionTrie() {
+        nodeCount = 1;
+        firstChild[ROOT] = NONE;
+        nextSibling[ROOT] = NONE;
+        entryHead[ROOT] = NONE;
+    }
+
+    // Add or replace the user's keys and display data
+    public void upsert(long userId, String username, String displayName, String avatarUrl) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = slotByUser.get(userId);
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                unlinkKeys(slot);
+            } else {
+                slot = allocateSlot();
+                slotByUser.put(userId, slot);
+            }
+            userIds[slot] = userId;
+            usernames[slot] = username;
+            displayNames[slot] = displayName;
+            avatarUrls[slot] = avatarUrl;
+            keys[slot] = keysOf(username, displayName);
+            for (String key : keys[slot]) {
+                // An empty key would put the user under every prefix
+                if (!key.isEmpty()) {
+                    link(nodeFor(key, true), slot);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // upsert, but leaves a user who is already in the trie untouched; false in that case
+    public boolean addIfAbsent(long userId, String username, String displayName, String avatarUrl) {
+        lock.writeLock().lock();
+        try {
+            if (slotByUser.containsKey(userId)) {
+                return false;
+            }
+            upsert(userId, username, displayName, avatarUrl);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotByUser.remove(userId);
+            if (slot == null) {
+                return;
+            }
+            unlinkKeys(slot);
+            keys[slot] = null;
+            usernames[slot] = null;
+            displayNames[slot] = null;
+            avatarUrls[slot] = null;
+            freeSlots.add(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotByUser.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Suggestion> suggest(String prefix, Map<Long, Integer> tierByUser, int limit) {
+        return suggest(prefix, tierByUser, NO_USER, limit);
+    }
+
+    // Trie nodes in use, root included
+    int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return nodeCount - freeNodeCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Users with a key starting with the prefix.
+     *
+     * @param tierByUser     close users and their tier (lower first); everyone
+     *                       else ranks after them
+     * @param excludedUserId user never suggested (the one typing), or NO_USER
+     */
+    public List<Suggestion> suggest(String prefix, Map<Long, Integer> tierByUser, long excludedUserId, int limit) {
+        String p = UserSearchIndex.normalize(prefix);
+        if (p.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Integer> picked = new LinkedHashSet<>();
+            int excluded = slotByUser.getOrDefault(excludedUserId, NONE);
+
+            // Close users: tier, then username prefix before display name word, then shorter
+            // username, then id; packed into one long each and kept in a sorted top-`limit` array
+            long[] best = new long[limit];
+            int count = 0;
+            for (Map.Entry<Long, Integer> entry : tierByUser.entrySet()) {
+                Integer slot = slotByUser.get(entry.getKey());
+                if (slot == null || slot == excluded) {
+                    continue;
+                }
+                int match = matchOf(keys[slot], p);
+                if (match < 0) {
+                    continue;
+                }
+                long rank = closeRank(entry.getValue(), match, keys[slot][0].length(), slot);
+                if (count == limit && rank >= best[count - 1]) {
+                    continue;
+                }
+                int i = count < limit ? count++ : count - 1;
+                while (i > 0 && best[i - 1] > rank) {
+                    best[i] = best[i - 1];
+                    i--;
+                }
+                best[i] = rank;
+            }
+            for (int i = 0; i < count; i++) {
+                picked.add((int) (best[i] & SLOT_MASK));
+            }
+
+            // Everyone else: pre-order walk below the prefix node, so a key is emitted
+            // before its extensions and the walk stops after `limit` users
+            int start = picked.size() < limit ? nodeFor(p, false) : NONE;
+            if (start != NONE) {
+                int[] stack = new int[64];
+                int top = 0;
+                stack[top++] = start;
+                while (top > 0 && picked.size() < limit) {
+                    int node = stack[--top];
+                    for (int e = entryHead[node]; e != NONE && picked.size() < limit; e = entryNext[e]) {
+                        if (entrySlot[e] != excluded) {
+                            picked.add(entrySlot[e]);
+                        }
+                    }
+                    for (int child = firstChild[node]; child != NONE; child = nextSibling[child]) {
+                        if (top == stack.length) {
+                            stack = Arrays.copyOf(stack, stack.length * 2);
+                        }
+                        stack[top++] = child;
+                    }
+                }
+            }
+
+            List<Suggestion> result = new ArrayList<>(picked.size());
+            for (int slot : picked) {
+                result.add(new Suggestion(userIds[slot], usernames[slot], displayNames[slot], avatarUrls[slot]));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // tier (8 bits) | match (1 bit) | username length (10 bits) | slot (32 bits), ascending is best
+    private static long closeRank(int tier, int match, int usernameLength, int slot) {
+        return ((long) Math.min(tier, 0xFF) << 43)
+                | ((long) match << 42)
+                | ((long) Math.min(usernameLength, 0x3FF) << 32)
+                | slot;
+    }
+
+    // 0 if the username starts with the prefix, 1 if a display name word does, -1 otherwise
+    private static int matchOf(String[] userKeys, String prefix) {
+        for (int i = 0; i < userKeys.length; i++) {
+            if (userKeys[i].startsWith(prefix)) {
+                return i == 0 ? 0 : 1;
+            }
+        }
+        return -1;
+    }
+
+    // Normalized username first (matchOf relies on it), then the distinct display name words
+    private static String[] keysOf(String username, String displayName) {
+        Set<String> result = new LinkedHashSet<>();
+        result.add(UserSearchIndex.normalize(username));
+        for (String word : UserSearchIndex.normalize(displayName).split("[^\\p{L}\\p{N}]+")) {
+            result.add(word);
+        }
+        return result.toArray(new String[0]);
+    }
+
+    // Node spelling the key, created on the way if asked to; NONE if absent
+    private int nodeFor(String key, boolean create) {
+        int node = ROOT;
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            int child = firstChild[node];
+            while (child != NONE && label[child] != c) {
+                child = nextSibling[child];
+            }
+            if (child == NONE) {
+                if (!create) {
+                    return NONE;
+                }
+                child = newNode(c);
+                nextSibling[child] = firstChild[node];
+                firstChild[node] = child;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private int newNode(char c) {
+        int node;
+        if (freeNode != NONE) {
+            node = freeNode;
+            freeNode = nextSibling[node];
+            freeNodeCount--;
+        } else {
+            if (nodeCount == label.length) {
+                int capacity = nodeCount * 2;
+                label = Arrays.copyOf(label, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                nextSibling = Arrays.copyOf(nextSibling, capacity);
+                entryHead = Arrays.copyOf(entryHead, capacity);
+            }
+            node = nodeCount++;
+        }
+        label[node] = c;
+        firstChild[node] = NONE;
+        nextSibling[node] = NONE;
+        entryHead[node] = NONE;
+        return node;
+    }
+
+    private void link(int node, int slot) {
+        int entry;
+        if (freeEntry != NONE) {
+            entry = freeEntry;
+            freeEntry = entryNext[entry];
+        } else {
+            if (entryCount == entrySlot.length) {
+                entrySlot = Arrays.copyOf(entrySlot, entryCount * 2);
+                entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+            }
+            entry = entryCount++;
+        }
+        entrySlot[entry] = slot;
+        entryNext[entry] = entryHead[node];
+        entryHead[node] = entry;
+    }
+
+    private void unlinkKeys(int slot) {
+        for (String key : keys[slot]) {
+            int node = key.isEmpty() ? NONE : nodeFor(key, false);
+            if (node == NONE) {
+                continue;
+            }
+            unlinkEntry(node, slot);
+            prune(key);
+        }
+    }
+
+    private void unlinkEntry(int node, int slot) {
+        int previous = NONE;
+        for (int e = entryHead[node]; e != NONE; previous = e, e = entryNext[e]) {
+            if (entrySlot[e] == slot) {
+                if (previous == NONE) {
+                    entryHead[node] = entryNext[e];
+                } else {
+                    entryNext[previous] = entryNext[e];
+                }
+                entryNext[e] = freeEntry;
+                freeEntry = e;
+                return;
+            }
+        }
+    }
+
+    // Detach the nodes at the end of the key's path that no longer lead to any user
+    private void prune(String key) {
+        int[] path = new int[key.length() + 1];
+        path[0] = ROOT;
+        for (int i = 0; i < key.length(); i++) {
+            int child = firstChild[path[i]];
+            while (child != NONE && label[child] != key.charAt(i)) {
+                child = nextSibling[child];
+            }
+            if (child == NONE) {
+                return;
+            }
+            path[i + 1] = child;
+        }
+        for (int i = key.length(); i > 0; i--) {
+            int node = path[i];
+            if (entryHead[node] != NONE || firstChild[node] != NONE) {
+                return;
+            }
+            int parent = path[i - 1];
+            if (firstChild[parent] == node) {
+                firstChild[parent] = nextSibling[node];
+            } else {
+                int sibling = firstChild[parent];
+                while (nextSibling[sibling] != node) {
+                    sibling = nextSibling[sibling];
+                }
+                nextSibling[sibling] = nextSibling[node];
+            }
+            nextSibling[node] = freeNode;
+            freeNode = node;
+            freeNodeCount++;
+        }
+    }
+
+    private int allocateSlot() {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.remove(freeSlots.size() - 1);
+        }
+        if (slotCount == userIds.length) {
+            int capacity = slotCount * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            usernames = Arrays.copyOf(usernames, capacity);
+            displayNames = Arrays.copyOf(displayNames, capacity);
+            avatarUrls = Arrays.copyOf(avatarUrls, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+        }
+        return slotCount++;
+    }
+}
@@ -0,0 +1,60 @@
+package com.connect.social_connect.util;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Lock-free token bucket in GCRA form: each key holds a single AtomicLong with
+ * its theoretical arrival time, updated by CAS. Buckets live in a bounded
+ * Caffeine map and are dropped after being idle, so memory stays flat under
+ * key-spraying clients.
+ */
+public class RateLimiter {
+
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+
+    public RateLimiter(long maxKeys, Duration idleEviction) {
+        this(maxKeys, idleEviction, System::nanoTime);
+    }
+
+    public RateLimiter(long maxKeys, Duration idleEviction, LongSupplier nanoClock) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(idleEviction)
+                .build();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Take one token for the key.
+     *
+     * @return 0 if allowed, otherwise the nanoseconds until the next token
+     */
+    public long tryAcquire(String key, int capacity, Duration period) {
+        long interval = Math.max(1, period.toNanos() / capacity);
+        long burstTolerance = interval * (capacity - 1);
+        AtomicLong cell = buckets.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long tat = cell.get();
+            long start = tat == Long.MIN_VALUE || tat - now < 0 ? now : tat;
+            long wait = start - now - burstTolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (cell.compareAndSet(tat, start + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
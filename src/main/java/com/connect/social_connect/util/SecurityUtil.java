@@ -10,11 +10,38 @@ import org.springframework.security.oauth2.jwt.Jwt;
 
 public class SecurityUtil {
 
+    // Compact numeric claims issued by AuthService.createAccessToken
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE_ID = "rid";
+    public static final String CLAIM_ROLE_VERSION = "rv";
+    public static final String CLAIM_RBAC_EPOCH = "rbe";
+    public static final String CLAIM_TOKEN_VERSION = "tv";
+
     public static Optional<String> getCurrentUserLogin() {
         SecurityContext securityContext = SecurityContextHolder.getContext();
         return Optional.ofNullable(extractPrincipal(securityContext.getAuthentication()));
     }
 
+    // Typed identity from the access token claims, empty for tokens issued without them
+    public static Optional<UserPrincipal> getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof Jwt jwt)) {
+            return Optional.empty();
+        }
+
+        Long userId = toLong(jwt.getClaim(CLAIM_USER_ID));
+        if (userId == null) {
+            return Optional.empty();
+        }
+
+        Long roleId = toLong(jwt.getClaim(CLAIM_ROLE_ID));
+        Long roleVersion = toLong(jwt.getClaim(CLAIM_ROLE_VERSION));
+        Long rbacEpoch = toLong(jwt.getClaim(CLAIM_RBAC_EPOCH));
+        Long tokenVersion = toLong(jwt.getClaim(CLAIM_TOKEN_VERSION));
+        return Optional.of(new UserPrincipal(userId, roleId, roleVersion != null ? roleVersion : 0L,
+                rbacEpoch != null ? rbacEpoch : 0L, tokenVersion != null ? tokenVersion : 0L, jwt.getSubject()));
+    }
+
     private static String extractPrincipal(Authentication authentication) {
         if (authentication == null) {
             return null;
@@ -27,4 +54,17 @@ public class SecurityUtil {
         }
         return null;
     }
+
+    private static Long toLong(Object claim) {
+        if (claim instanceof Number number) {
+            return number.longValue();
+        } else if (claim instanceof String s && !s.isEmpty()) {
+            try {
+                return Long.parseLong(s);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,9 @@
+package com.connect.social_connect.util;
+
+/**
+ * Identity of the caller as carried by the access token claims.
+ * Available without touching the database, see SecurityUtil.getCurrentPrincipal().
+ */
+public record UserPrincipal(Long userId, Long roleId, long roleVersion, long rbacEpoch, long tokenVersion,
+        String email) {
+}
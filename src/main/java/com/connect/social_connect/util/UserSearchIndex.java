@@ -0,0 +1,351 @@
+package com.connect.social_connect.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory n-gram index over username and display name for user search.
+ * Every indexed text contributes its trigrams (infix matches for queries of
+ * three or more characters) and the first one and two characters of each word
+ * (prefix matches for shorter queries). Posting lists are ascending int arrays
+ * of internal document numbers, so a query intersects them by walking the
+ * shortest one and binary-searching the rest, then verifies the candidates.
+ *
+ * Text is lower-cased and stripped of diacritics, so "Đức" matches "duc". An
+ * update appends a new document and tombstones the old one; the structure is
+ * compacted once half of the documents are dead. Reads share a lock, writes
+ * take it exclusively.
+ */
+public class UserSearchIndex {
+
+    private static final int GRAM = 3;
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    // Rank of a match, lower is better
+    private static final int EXACT_USERNAME = 0;
+    private static final int USERNAME_PREFIX = 1;
+    private static final int WORD_PREFIX = 2;
+    private static final int USERNAME_INFIX = 3;
+    private static final int DISPLAY_NAME_INFIX = 4;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final int maxCandidates;
+
+    // Document arrays, indexed by internal document number
+    private long[] userIds = new long[1024];
+    private String[] usernames = new String[1024];
+    private String[] displayNames = new String[1024];
+    private final BitSet deleted = new BitSet();
+    private int docCount;
+    private int deletedCount;
+
+    private final Map<Long, Integer> docByUser = new HashMap<>();
+    // Live document per normalized username, so an exact match never depends on the candidate cap
+    private final Map<String, Integer> docByUsername = new HashMap<>();
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    /**
+     * @param maxCandidates upper bound on documents verified per query, which
+     *                      keeps one- and two-letter queries fast on large indexes
+     *                      at the cost of ranking only among the first matches
+     *                      (an exact username match is always included)
+     */
+    public UserSearchIndex(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    // Add or replace the user's entry
+    public void upsert(long userId, String username, String displayName) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(userId);
+            addDoc(userId, normalize(username), normalize(displayName));
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Add the user only if it has no document yet; false if it had one
+    public boolean addIfAbsent(long userId, String username, String displayName) {
+        lock.writeLock().lock();
+        try {
+            if (docByUser.containsKey(userId)) {
+                return false;
+            }
+            addDoc(userId, normalize(username), normalize(displayName));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            removeDoc(userId);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docByUser.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked user ids matching the query: exact username, username prefix, word
+     * prefix of the display name, then infix matches; ties go to the shorter
+     * username, then the lower id.
+     */
+    public List<Long> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Postings[] lists = postingsFor(q);
+            if (lists == null) {
+                return List.of();
+            }
+            Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+
+            // Max-heap on rank, holding the best `limit` hits seen so far
+            Comparator<long[]> byRank = Comparator.<long[]>comparingLong(hit -> hit[0])
+                    .thenComparingLong(hit -> hit[1])
+                    .thenComparingLong(hit -> hit[2]);
+            PriorityQueue<long[]> best = new PriorityQueue<>(limit + 1, byRank.reversed());
+
+            Integer exact = docByUsername.get(q);
+            if (exact != null) {
+                best.add(new long[] { EXACT_USERNAME, usernames[exact].length(), userIds[exact] });
+            }
+
+            Postings shortest = lists[0];
+            int verified = 0;
+            for (int i = 0; i < shortest.size && verified < maxCandidates; i++) {
+                int doc = shortest.docs[i];
+                if ((exact != null && doc == exact) || deleted.get(doc) || !inAll(lists, doc)) {
+                    continue;
+                }
+                verified++;
+                int rank = rank(q, usernames[doc], displayNames[doc]);
+                if (rank < 0) {
+                    continue;
+                }
+                long[] hit = { rank, usernames[doc].length(), userIds[doc] };
+                if (best.size() < limit) {
+                    best.add(hit);
+                } else if (byRank.compare(hit, best.peek()) < 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+
+            List<long[]> hits = new ArrayList<>(best);
+            hits.sort(byRank);
+            List<Long> ids = new ArrayList<>(hits.size());
+            for (long[] hit : hits) {
+                ids.add(hit[2]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Lower-case, no diacritics, single spaces
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        stripped = stripped.replace('đ', 'd').replace('Đ', 'd');
+        return SPACES.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    // Posting lists a match must appear in, null if one of them is empty
+    private Postings[] postingsFor(String q) {
+        Set<String> grams = new HashSet<>();
+        if (q.length() < GRAM) {
+            grams.add("^" + q);
+        } else {
+            for (int i = 0; i + GRAM <= q.length(); i++) {
+                grams.add(q.substring(i, i + GRAM));
+            }
+        }
+        Postings[] lists = new Postings[grams.size()];
+        int i = 0;
+        for (String gram : grams) {
+            Postings list = postings.get(gram);
+            if (list == null) {
+                return null;
+            }
+            lists[i++] = list;
+        }
+        return lists;
+    }
+
+    private static boolean inAll(Postings[] lists, int doc) {
+        for (int i = 1; i < lists.length; i++) {
+            if (Arrays.binarySearch(lists[i].docs, 0, lists[i].size, doc) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Rank of the match, -1 when the grams matched but the text does not (e.g. "abcab" for "abcabc")
+    private static int rank(String q, String username, String displayName) {
+        if (username.equals(q)) {
+            return EXACT_USERNAME;
+        }
+        if (username.startsWith(q)) {
+            return USERNAME_PREFIX;
+        }
+        if (isWordPrefix(q, username) || isWordPrefix(q, displayName)) {
+            return WORD_PREFIX;
+        }
+        if (q.length() < GRAM) {
+            return -1;
+        }
+        if (username.contains(q)) {
+            return USERNAME_INFIX;
+        }
+        return displayName.contains(q) ? DISPLAY_NAME_INFIX : -1;
+    }
+
+    private static boolean isWordPrefix(String q, String text) {
+        for (int from = 0; from < text.length();) {
+            if (text.startsWith(q, from)) {
+                return true;
+            }
+            int next = nextWordStart(text, from);
+            if (next < 0) {
+                return false;
+            }
+            from = next;
+        }
+        return false;
+    }
+
+    // Start of the word after the one at `from`, -1 if none
+    private static int nextWordStart(String text, int from) {
+        int i = from;
+        while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+            i++;
+        }
+        while (i < text.length() && !Character.isLetterOrDigit(text.charAt(i))) {
+            i++;
+        }
+        return i < text.length() ? i : -1;
+    }
+
+    private void addDoc(long userId, String username, String displayName) {
+        if (docCount == userIds.length) {
+            int capacity = docCount * 2;
+            userIds = Arrays.copyOf(userIds, capacity);
+            usernames = Arrays.copyOf(usernames, capacity);
+            displayNames = Arrays.copyOf(displayNames, capacity);
+        }
+        int doc = docCount++;
+        userIds[doc] = userId;
+        usernames[doc] = username;
+        displayNames[doc] = displayName;
+        docByUser.put(userId, doc);
+        docByUsername.put(username, doc);
+
+        Set<String> grams = new HashSet<>();
+        collectGrams(username, grams);
+        collectGrams(displayName, grams);
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(doc);
+        }
+    }
+
+    private static void collectGrams(String text, Set<String> grams) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        for (int start = 0; start >= 0 && start < text.length(); start = nextWordStart(text, start)) {
+            if (!Character.isLetterOrDigit(text.charAt(start))) {
+                continue;
+            }
+            grams.add("^" + text.charAt(start));
+            if (start + 1 < text.length()) {
+                grams.add("^" + text.substring(start, start + 2));
+            }
+        }
+    }
+
+    private void removeDoc(long userId) {
+        Integer doc = docByUser.remove(userId);
+        if (doc != null) {
+            docByUsername.remove(usernames[doc], doc);
+            deleted.set(doc);
+            deletedCount++;
+        }
+    }
+
+    // Re-number the live documents once tombstones outnumber them
+    private void compactIfNeeded() {
+        if (deletedCount < 1024 || deletedCount * 2 < docCount) {
+            return;
+        }
+        long[] oldIds = userIds;
+        String[] oldUsernames = usernames;
+        String[] oldDisplayNames = displayNames;
+        int oldCount = docCount;
+        BitSet oldDeleted = (BitSet) deleted.clone();
+
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, oldCount - deletedCount)) * 2);
+        userIds = new long[capacity];
+        usernames = new String[capacity];
+        displayNames = new String[capacity];
+        docCount = 0;
+        deletedCount = 0;
+        deleted.clear();
+        docByUser.clear();
+        docByUsername.clear();
+        postings.clear();
+        for (int doc = 0; doc < oldCount; doc++) {
+            if (!oldDeleted.get(doc)) {
+                addDoc(oldIds[doc], oldUsernames[doc], oldDisplayNames[doc]);
+            }
+        }
+    }
+
+    // Growable ascending int array; documents are only ever appended in increasing order
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+    }
+}
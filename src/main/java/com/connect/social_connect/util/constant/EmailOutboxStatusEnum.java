@@ -0,0 +1,7 @@
+package com.connect.social_connect.util.constant;
+
+public enum EmailOutboxStatusEnum {
+    PENDING,
+    SENDING,
+    DEAD
+}
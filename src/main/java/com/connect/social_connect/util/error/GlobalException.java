@@ -101,6 +101,15 @@ public class GlobalException {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(res);
     }
 
+    @ExceptionHandler(ServerBusyException.class)
+    public ResponseEntity<RestResponse<Object>> handleServerBusyException(ServerBusyException ex) {
+        RestResponse<Object> res = new RestResponse<>();
+        res.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE.value());
+        res.setError("Service Unavailable");
+        res.setMessage(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(res);
+    }
+
     @ExceptionHandler(NoResourceFoundException.class)
     public ResponseEntity<RestResponse<Object>> handleNotFoundException(Exception ex) {
         RestResponse<Object> res = new RestResponse<>();
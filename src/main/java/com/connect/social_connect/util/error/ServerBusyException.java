@@ -0,0 +1,8 @@
+package com.connect.social_connect.util.error;
+
+// Unchecked because it is raised from inside PasswordEncoder calls made by Spring Security
+public class ServerBusyException extends RuntimeException {
+    public ServerBusyException(String message) {
+        super(message);
+    }
+}
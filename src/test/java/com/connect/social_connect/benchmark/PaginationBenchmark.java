@@ -0,0 +1,169 @@
+package com.connect.social_connect.benchmark;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import com.connect.social_connect.domain.User;
+import com.connect.social_connect.domain.response.ResultPaginationDTO;
+import com.connect.social_connect.util.CursorPagination;
+import com.connect.social_connect.util.constant.AuthProviderEnum;
+import com.connect.social_connect.util.error.IdInvalidException;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Cost of fetching page 10,000 of the user listing through Spring Data: OFFSET
+ * paging plus COUNT (what listings do by default) versus CursorPagination.fetch
+ * in cursor mode. Hibernate creates the application's tables in a scratch
+ * schema (dropped afterwards, so never point this at the real database) on the
+ * MySQL instance given by -Dbench.jdbc.url / -Dbench.jdbc.user /
+ * -Dbench.jdbc.password.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.connect.social_connect.benchmark.PaginationBenchmark
+ * -Dbench.jdbc.url=jdbc:mysql://localhost:3306/social_connect_bench?createDatabaseIfNotExist=true
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaginationBenchmark {
+
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/social_connect_bench?createDatabaseIfNotExist=true";
+
+    @Param({ "20" })
+    private int pageSize;
+
+    @Param({ "10000" })
+    private int page;
+
+    private DriverManagerDataSource dataSource;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private SimpleJpaRepository<User, Long> userRepository;
+
+    // Cursor pointing at the last row of page - 1, as meta.next would carry it
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        dataSource = new DriverManagerDataSource(
+                System.getProperty("bench.jdbc.url", DEFAULT_URL),
+                System.getProperty("bench.jdbc.user", "root"),
+                System.getProperty("bench.jdbc.password", ""));
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan(User.class.getPackageName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Map.of(
+                AvailableSettings.HBM2DDL_AUTO, "create-drop",
+                AvailableSettings.PHYSICAL_NAMING_STRATEGY, CamelCaseToUnderscoresNamingStrategy.class.getName()));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+        entityManager = entityManagerFactory.createEntityManager();
+        userRepository = new SimpleJpaRepository<>(User.class, entityManager);
+
+        try (Connection connection = dataSource.getConnection()) {
+            insertUsers(connection, pageSize * (page + 1));
+            try (PreparedStatement query = connection.prepareStatement(
+                    "SELECT id FROM users ORDER BY id LIMIT 1 OFFSET ?")) {
+                query.setInt(1, (page - 1) * pageSize - 1);
+                try (ResultSet rs = query.executeQuery()) {
+                    rs.next();
+                    cursor = CursorPagination.encode(ScrollPosition.forward(Map.of("id", rs.getLong(1))));
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManager.close();
+        entityManagerFactory.close();
+    }
+
+    @Benchmark
+    public Page<User> offsetWithCount() {
+        entityManager.clear();
+        return userRepository.findAll(Specification.where(null), PageRequest.of(page - 1, pageSize, Sort.by("id")));
+    }
+
+    @Benchmark
+    public ResultPaginationDTO cursor() throws IdInvalidException {
+        entityManager.clear();
+        return CursorPagination.fetch(userRepository, Specification.where(null), PageRequest.of(0, pageSize),
+                Set.of("id"), cursor, false, users -> users);
+    }
+
+    private static void insertUsers(Connection connection, int rows) throws SQLException {
+        connection.setAutoCommit(false);
+        Timestamp createdAt = Timestamp.from(Instant.parse("2024-01-01T00:00:00Z"));
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO users "
+                + "(username, email, auth_provider, is_email_verified, is_deleted, created_at) "
+                + "VALUES (?, ?, ?, false, false, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, "user" + i);
+                insert.setString(2, "user" + i + "@example.com");
+                insert.setString(3, AuthProviderEnum.LOCAL.name());
+                insert.setTimestamp(4, createdAt);
+                insert.addBatch();
+                if (i % 5_000 == 4_999) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // Forked benchmark JVMs do not inherit system properties, pass the connection settings on
+        new Runner(new OptionsBuilder()
+                .include(PaginationBenchmark.class.getSimpleName())
+                .jvmArgsAppend(
+                        "-Dbench.jdbc.url=" + System.getProperty("bench.jdbc.url", DEFAULT_URL),
+                        "-Dbench.jdbc.user=" + System.getProperty("bench.jdbc.user", "root"),
+                        "-Dbench.jdbc.password=" + System.getProperty("bench.jdbc.password", ""))
+                .build()).run();
+    }
+}
@@ -0,0 +1,125 @@
+package com.connect.social_connect.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import com.connect.social_connect.config.MailPoolProperties;
+import com.connect.social_connect.config.PooledJavaMailSender;
+import com.connect.social_connect.util.InProcessSmtpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Per-message cost of sending to an in-process SMTP server whose connection
+ * setup takes handshakeMillis (standing in for TLS and AUTH): Boot's
+ * JavaMailSenderImpl, which connects for every send call, versus
+ * PooledJavaMailSender one message per call and in batches of BATCH.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.connect.social_connect.benchmark.SmtpTransportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SmtpTransportBenchmark {
+
+    private static final int BATCH = 20;
+
+    @Param({ "0", "20" })
+    private long handshakeMillis;
+
+    private InProcessSmtpServer smtpServer;
+    private JavaMailSenderImpl perSendSender;
+    private PooledJavaMailSender pooledSender;
+    private MimeMessage message;
+    private MimeMessage[] batch;
+
+    @Setup
+    public void setUp() throws IOException, MessagingException {
+        smtpServer = new InProcessSmtpServer();
+        smtpServer.setConnectDelayMillis(handshakeMillis);
+
+        perSendSender = new JavaMailSenderImpl();
+        perSendSender.setHost("127.0.0.1");
+        perSendSender.setPort(smtpServer.getPort());
+
+        pooledSender = new PooledJavaMailSender(new MailPoolProperties(), new SimpleMeterRegistry());
+        pooledSender.setHost("127.0.0.1");
+        pooledSender.setPort(smtpServer.getPort());
+
+        message = buildMessage("bench@example.com");
+        batch = new MimeMessage[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            batch[i] = buildMessage("bench" + i + "@example.com");
+        }
+    }
+
+    // The stand-in keeps every message it receives
+    @TearDown(Level.Iteration)
+    public void clearMessages() {
+        smtpServer.getMessages().clear();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        pooledSender.destroy();
+        smtpServer.close();
+    }
+
+    @Benchmark
+    public void connectPerSend() {
+        perSendSender.send(message);
+    }
+
+    @Benchmark
+    public void pooledSend() {
+        pooledSender.send(message);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void pooledBatch() {
+        pooledSender.send(batch);
+    }
+
+    private MimeMessage buildMessage(String to) throws MessagingException {
+        MimeMessage mimeMessage = perSendSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, false, "UTF-8");
+        helper.setFrom("noreply@example.com");
+        helper.setTo(to);
+        helper.setSubject("Xác thực email - Social Connect");
+        helper.setText("<p>Mã OTP của bạn: <strong>123456</strong></p>", true);
+        return mimeMessage;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SmtpTransportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,242 @@
+package com.connect.social_connect.benchmark;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import com.connect.social_connect.domain.Role;
+import com.connect.social_connect.domain.User;
+import com.connect.social_connect.domain.response.ResUserDTO;
+import com.connect.social_connect.repository.UserAdminRow;
+import com.connect.social_connect.repository.UserRepository;
+import com.connect.social_connect.repository.UserRepositoryCustomImpl;
+import com.connect.social_connect.util.constant.AuthProviderEnum;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Admin user listing, 100-row pages: loading User entities and mapping them to
+ * ResUserDTO (the previous fetchAllUsers) versus the UserAdminRow projection of
+ * findAdminRows now used. Both sides map to the DTO locally, field for field as
+ * UserService does, so only the repository call differs.
+ * Run it with the GC profiler (main does) and compare gc.alloc.rate.norm, the bytes
+ * allocated per page, next to the ops/s throughput.
+ *
+ * Bootstraps Hibernate with the application's entities and naming strategy against
+ * the MySQL instance given by -Dbench.jdbc.url / -Dbench.jdbc.user /
+ * -Dbench.jdbc.password, using hbm2ddl=update. Point it at a scratch schema.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.connect.social_connect.benchmark.UserListingBenchmark
+ * -Dbench.jdbc.url=jdbc:mysql://localhost:3306/social_connect_bench
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserListingBenchmark {
+
+    private static final String EMAIL_PREFIX = "bench-listing-";
+    private static final String ROLE_NAME = "BENCH_LISTING";
+
+    @Param({ "100" })
+    private int pageSize;
+
+    @Param({ "1000" })
+    private int users;
+
+    // Bio size in characters, the TEXT column the projection no longer reads
+    @Param({ "2000" })
+    private int bioLength;
+
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private UserRepository userRepository;
+    private Specification<User> spec;
+    private Pageable pageable;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                System.getProperty("bench.jdbc.url", "jdbc:mysql://localhost:3306/social_connect_bench"),
+                System.getProperty("bench.jdbc.user", "root"),
+                System.getProperty("bench.jdbc.password", ""));
+
+        // Same naming strategies Spring Boot configures
+        Properties jpaProperties = new Properties();
+        jpaProperties.put("hibernate.hbm2ddl.auto", "update");
+        jpaProperties.put("hibernate.physical_naming_strategy",
+                "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy");
+        jpaProperties.put("hibernate.implicit_naming_strategy",
+                "org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy");
+
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setPackagesToScan("com.connect.social_connect.domain");
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaProperties(jpaProperties);
+        factoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = factoryBean.getObject();
+
+        cleanUp(entityManagerFactory);
+        seed(entityManagerFactory);
+
+        EntityManager shared = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        userRepository = new JpaRepositoryFactory(shared).getRepository(UserRepository.class,
+                RepositoryFragments.just(new UserRepositoryCustomImpl(shared)));
+
+        spec = (root, query, cb) -> cb.like(root.get("email"), EMAIL_PREFIX + "%");
+        pageable = PageRequest.of(1, pageSize, Sort.by("id"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cleanUp(factoryBean.getObject());
+        factoryBean.destroy();
+    }
+
+    @Benchmark
+    public List<ResUserDTO> entityHydration() {
+        return userRepository.findAll(spec, pageable).getContent()
+                .stream()
+                .map(UserListingBenchmark::fromEntity)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ResUserDTO> projection() {
+        return userRepository.findAdminRows(spec, pageable).getContent()
+                .stream()
+                .map(UserListingBenchmark::fromRow)
+                .collect(Collectors.toList());
+    }
+
+    private static ResUserDTO fromEntity(User user) {
+        ResUserDTO dto = new ResUserDTO();
+        dto.setId(user.getId());
+        dto.setUsername(user.getUsername());
+        dto.setEmail(user.getEmail());
+        dto.setDisplayName(user.getDisplayName());
+        dto.setAvatarUrl(user.getAvatarUrl());
+        dto.setAuthProvider(user.getAuthProvider() != null ? user.getAuthProvider().name() : null);
+        dto.setIsEmailVerified(user.getIsEmailVerified());
+        dto.setCreatedAt(user.getCreatedAt());
+        dto.setUpdatedAt(user.getUpdatedAt());
+        if (user.getRole() != null) {
+            ResUserDTO.RoleDTO roleDTO = new ResUserDTO.RoleDTO();
+            roleDTO.setId(user.getRole().getId());
+            roleDTO.setName(user.getRole().getName());
+            dto.setRole(roleDTO);
+        }
+        return dto;
+    }
+
+    private static ResUserDTO fromRow(UserAdminRow row) {
+        ResUserDTO dto = new ResUserDTO();
+        dto.setId(row.id());
+        dto.setUsername(row.username());
+        dto.setEmail(row.email());
+        dto.setDisplayName(row.displayName());
+        dto.setAvatarUrl(row.avatarUrl());
+        dto.setAuthProvider(row.authProvider() != null ? row.authProvider().name() : null);
+        dto.setIsEmailVerified(row.isEmailVerified());
+        dto.setCreatedAt(row.createdAt());
+        dto.setUpdatedAt(row.updatedAt());
+        if (row.roleId() != null) {
+            ResUserDTO.RoleDTO roleDTO = new ResUserDTO.RoleDTO();
+            roleDTO.setId(row.roleId());
+            roleDTO.setName(row.roleName());
+            dto.setRole(roleDTO);
+        }
+        return dto;
+    }
+
+    private void seed(EntityManagerFactory entityManagerFactory) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        em.getTransaction().begin();
+        Role role = new Role();
+        role.setName(ROLE_NAME);
+        role.setActive(true);
+        role.setVersion(0L);
+        em.persist(role);
+
+        String bio = "b".repeat(bioLength);
+        for (int i = 0; i < users; i++) {
+            User user = new User();
+            user.setUsername(EMAIL_PREFIX + i);
+            user.setEmail(EMAIL_PREFIX + i + "@example.com");
+            user.setPasswordHash("$2a$10$abcdefghijklmnopqrstuuJ5s3v6bQ0m4H3uJ0u1q1R8Jc9pY4sZ2");
+            user.setDisplayName("Bench User " + i);
+            user.setAvatarUrl("https://example.com/avatars/" + i + ".png");
+            user.setCoverUrl("https://example.com/covers/" + i + ".png");
+            user.setBio(bio);
+            user.setAuthProvider(AuthProviderEnum.LOCAL);
+            user.setIsEmailVerified(true);
+            user.setRole(role);
+            em.persist(user);
+            if (i % 200 == 199) {
+                em.flush();
+                em.clear();
+                role = em.find(Role.class, role.getId());
+            }
+        }
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    private void cleanUp(EntityManagerFactory entityManagerFactory) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        em.getTransaction().begin();
+        em.createQuery("DELETE FROM User u WHERE u.email LIKE :prefix")
+                .setParameter("prefix", EMAIL_PREFIX + "%")
+                .executeUpdate();
+        em.createQuery("DELETE FROM Role r WHERE r.name = :name")
+                .setParameter("name", ROLE_NAME)
+                .executeUpdate();
+        em.getTransaction().commit();
+        em.close();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // Forked benchmark JVMs do not inherit system properties, pass the connection settings on
+        new Runner(new OptionsBuilder()
+                .include(UserListingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .jvmArgsAppend(
+                        "-Dbench.jdbc.url=" + System.getProperty("bench.jdbc.url", "jdbc:mysql://localhost:3306/social_connect_bench"),
+                        "-Dbench.jdbc.user=" + System.getProperty("bench.jdbc.user", "root"),
+                        "-Dbench.jdbc.password=" + System.getProperty("bench.jdbc.password", ""))
+                .build()).run();
+    }
+}
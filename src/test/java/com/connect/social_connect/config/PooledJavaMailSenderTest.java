@@ -0,0 +1,157 @@
+package com.connect.social_connect.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import com.connect.social_connect.util.InProcessSmtpServer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * PooledJavaMailSender against an in-process SMTP server: session reuse,
+ * batches, reconnects and per-message failures
+ */
+class PooledJavaMailSenderTest {
+
+    private InProcessSmtpServer smtpServer;
+    private MailPoolProperties properties;
+    private PooledJavaMailSender mailSender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new InProcessSmtpServer();
+        properties = new MailPoolProperties();
+        mailSender = newSender();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mailSender.destroy();
+        smtpServer.close();
+    }
+
+    @Test
+    void sendsReuseOneSession() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mailSender.send(message("user" + i + "@example.com"));
+        }
+
+        assertThat(smtpServer.getMessages()).hasSize(3);
+        assertThat(smtpServer.getConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void batchGoesOverOneSession() throws Exception {
+        MimeMessage[] batch = new MimeMessage[5];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = message("user" + i + "@example.com");
+        }
+
+        mailSender.send(batch);
+
+        assertThat(smtpServer.getMessages()).extracting(InProcessSmtpServer.Message::recipients)
+                .containsExactly(List.of("user0@example.com"), List.of("user1@example.com"),
+                        List.of("user2@example.com"), List.of("user3@example.com"), List.of("user4@example.com"));
+        assertThat(smtpServer.getConnectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void reconnectsWhenTheServerDroppedTheSession() throws Exception {
+        mailSender.send(message("first@example.com"));
+        smtpServer.dropConnections();
+
+        mailSender.send(message("second@example.com"));
+
+        assertThat(smtpServer.getMessages()).extracting(InProcessSmtpServer.Message::recipients)
+                .containsExactly(List.of("first@example.com"), List.of("second@example.com"));
+        assertThat(smtpServer.getConnectionCount()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectedRecipientFailsOnlyItsMessage() throws Exception {
+        smtpServer.rejectRecipient("ghost@example.com");
+        MimeMessage rejected = message("ghost@example.com");
+
+        assertThatThrownBy(() -> mailSender.send(message("a@example.com"), rejected, message("b@example.com")))
+                .isInstanceOfSatisfying(MailSendException.class,
+                        e -> assertThat(e.getFailedMessages()).containsOnlyKeys(rejected));
+
+        assertThat(smtpServer.getMessages()).extracting(InProcessSmtpServer.Message::recipients)
+                .containsExactly(List.of("a@example.com"), List.of("b@example.com"));
+    }
+
+    @Test
+    void sessionIsReplacedAfterMaxMessages() throws Exception {
+        properties.setMaxMessagesPerConnection(2);
+        mailSender.destroy();
+        mailSender = newSender();
+
+        for (int i = 0; i < 5; i++) {
+            mailSender.send(message("user" + i + "@example.com"));
+        }
+
+        assertThat(smtpServer.getMessages()).hasSize(5);
+        assertThat(smtpServer.getConnectionCount()).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentSendersShareAtMostSizeSessions() throws Exception {
+        properties.setSize(2);
+        mailSender.destroy();
+        mailSender = newSender();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10; i++) {
+                        mailSender.send(message("user" + thread + "-" + i + "@example.com"));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(smtpServer.getMessages()).hasSize(80);
+        assertThat(smtpServer.getConnectionCount()).isLessThanOrEqualTo(2);
+    }
+
+    private PooledJavaMailSender newSender() {
+        properties.setBorrowTimeout(Duration.ofSeconds(10));
+        PooledJavaMailSender sender = new PooledJavaMailSender(properties, new SimpleMeterRegistry());
+        sender.setHost("127.0.0.1");
+        sender.setPort(smtpServer.getPort());
+        return sender;
+    }
+
+    private MimeMessage message(String to) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+        helper.setFrom("noreply@example.com");
+        helper.setTo(to);
+        helper.setSubject("Xác thực email");
+        helper.setText("Mã OTP: 123456");
+        return message;
+    }
+}
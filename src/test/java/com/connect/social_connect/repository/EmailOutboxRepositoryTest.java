@@ -0,0 +1,131 @@
+package com.connect.social_connect.repository;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import com.connect.social_connect.domain.EmailOutbox;
+import com.connect.social_connect.util.constant.EmailOutboxStatusEnum;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Claim and lease statements of the email outbox run against a real database
+ * (H2 in MySQL mode)
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:email-outbox;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class EmailOutboxRepositoryTest {
+
+    private static final List<EmailOutboxStatusEnum> DUE = List.of(EmailOutboxStatusEnum.PENDING,
+            EmailOutboxStatusEnum.SENDING);
+    private static final EmailOutboxStatusEnum SENDING = EmailOutboxStatusEnum.SENDING;
+    private static final EmailOutboxStatusEnum DEAD = EmailOutboxStatusEnum.DEAD;
+
+    @Autowired
+    private EmailOutboxRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    // Stored timestamps keep microseconds, as the dispatcher's leases do
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+    private Long queued() {
+        EmailOutbox row = new EmailOutbox();
+        row.setRecipient("alice@example.com");
+        row.setSubject("Xác thực email");
+        row.setHtmlBody("<p>Mã OTP của bạn: <strong>123456</strong></p>");
+        row.setNextAttemptAt(now);
+        return entityManager.persistAndFlush(row).getId();
+    }
+
+    private EmailOutbox reload(Long id) {
+        entityManager.clear();
+        return entityManager.find(EmailOutbox.class, id);
+    }
+
+    @Test
+    void claimIsExclusiveUntilTheLeaseLapses() {
+        Long id = queued();
+        Instant lease = now.plusSeconds(60);
+        assertThat(repository.findDueIds(DUE, now, PageRequest.of(0, 10))).containsExactly(id);
+
+        assertThat(repository.claim(id, now, "a", lease, SENDING, DEAD)).isEqualTo(1);
+        assertThat(repository.claim(id, now, "b", now.plusSeconds(90), SENDING, DEAD)).isZero();
+        assertThat(repository.findDueIds(DUE, now, PageRequest.of(0, 10))).isEmpty();
+
+        Instant lapsed = lease.plusSeconds(1);
+        assertThat(repository.findDueIds(DUE, lapsed, PageRequest.of(0, 10))).containsExactly(id);
+        assertThat(repository.claim(id, lapsed, "b", lapsed.plusSeconds(60), SENDING, DEAD)).isEqualTo(1);
+        assertThat(reload(id).getLeaseOwner()).isEqualTo("b");
+    }
+
+    @Test
+    void outcomeNeedsTheCurrentLease() {
+        Long id = queued();
+        Instant leaseA = now.plusSeconds(60);
+        repository.claim(id, now, "a", leaseA, SENDING, DEAD);
+        Instant lapsed = leaseA.plusSeconds(1);
+        Instant leaseB = lapsed.plusSeconds(60);
+        repository.claim(id, lapsed, "b", leaseB, SENDING, DEAD);
+
+        // "a" finishes late: none of its writes land
+        assertThat(repository.deleteLeased(id, "a", leaseA)).isZero();
+        assertThat(repository.recordFailure(id, "a", leaseA, EmailOutboxStatusEnum.PENDING, now, "451")).isZero();
+        assertThat(repository.deadLetter(id, "a", leaseA, DEAD, now, "550")).isZero();
+        // Same owner with an older expiry is not the current lease either
+        assertThat(repository.deleteLeased(id, "b", leaseA)).isZero();
+        assertThat(reload(id).getStatus()).isEqualTo(SENDING);
+
+        assertThat(repository.deleteLeased(id, "b", leaseB)).isEqualTo(1);
+        assertThat(reload(id)).isNull();
+    }
+
+    @Test
+    void failureReschedulesAndReleasesTheLease() {
+        Long id = queued();
+        Instant lease = now.plusSeconds(60);
+        repository.claim(id, now, "a", lease, SENDING, DEAD);
+        Instant retryAt = now.plusSeconds(30);
+
+        assertThat(repository.recordFailure(id, "a", lease, EmailOutboxStatusEnum.PENDING, retryAt,
+                "451 try later")).isEqualTo(1);
+
+        EmailOutbox row = reload(id);
+        assertThat(row.getStatus()).isEqualTo(EmailOutboxStatusEnum.PENDING);
+        assertThat(row.getAttempts()).isEqualTo(1);
+        assertThat(row.getLeaseOwner()).isNull();
+        assertThat(row.getLastError()).isEqualTo("451 try later");
+        assertThat(repository.claim(id, now, "b", lease, SENDING, DEAD)).isZero();
+        assertThat(repository.claim(id, retryAt, "b", retryAt.plusSeconds(60), SENDING, DEAD)).isEqualTo(1);
+    }
+
+    @Test
+    void deadLetterScrubsTheBodyAndIsNeverClaimedAgain() {
+        Long id = queued();
+        Instant lease = now.plusSeconds(60);
+        repository.claim(id, now, "a", lease, SENDING, DEAD);
+
+        assertThat(repository.deadLetter(id, "a", lease, DEAD, now, "550 no such user")).isEqualTo(1);
+
+        EmailOutbox row = reload(id);
+        assertThat(row.getStatus()).isEqualTo(DEAD);
+        assertThat(row.getHtmlBody()).isEmpty();
+        assertThat(row.getSubject()).isEqualTo("Xác thực email");
+        assertThat(row.getLastError()).isEqualTo("550 no such user");
+        Instant later = now.plusSeconds(3600);
+        assertThat(repository.findDueIds(DUE, later, PageRequest.of(0, 10))).isEmpty();
+        assertThat(repository.claim(id, later, "b", later.plusSeconds(60), SENDING, DEAD)).isZero();
+    }
+}
@@ -21,7 +21,8 @@ class AuthServicePropertyTest {
 
     private AuthService createAuthService(long accessExpiration, long refreshExpiration) {
         JwtEncoder jwtEncoder = Mockito.mock(JwtEncoder.class);
-        AuthService authService = new AuthService(jwtEncoder);
+        AuthorizationService authorizationService = Mockito.mock(AuthorizationService.class);
+        AuthService authService = new AuthService(jwtEncoder, authorizationService);
 
         ReflectionTestUtils.setField(authService, "jwtKey",
             "dGVzdC1zZWNyZXQta2V5LWZvci1qd3QtdG9rZW4tZ2VuZXJhdGlvbi1taW5pbXVtLTUxMi1iaXRz");
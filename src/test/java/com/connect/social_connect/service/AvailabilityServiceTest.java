@@ -0,0 +1,149 @@
+package com.connect.social_connect.service;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.connect.social_connect.domain.User;
+import com.connect.social_connect.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * AvailabilityService reading the users table of an H2 database (MySQL mode);
+ * the exists queries are mocked so the tests see which answers reach them
+ */
+class AvailabilityServiceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private UserRepository userRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityService service;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:availability-" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE users (id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                + "username VARCHAR(255), email VARCHAR(255))");
+
+        userRepository = Mockito.mock(UserRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new AvailabilityService(userRepository, dataSource, meterRegistry);
+        ReflectionTestUtils.setField(service, "expectedUsers", 1_000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.001);
+        // Smaller than the table, so loads and refreshes page
+        ReflectionTestUtils.setField(service, "loadBatchSize", 2);
+        ReflectionTestUtils.setField(service, "maxStalenessMs", 60_000L);
+        ReflectionTestUtils.setField(service, "refreshOverlapIds", 1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("SHUTDOWN");
+    }
+
+    private void insert(String username, String email) {
+        jdbcTemplate.update("INSERT INTO users (username, email) VALUES (?, ?)", username, email);
+    }
+
+    private double checks(String field, String result) {
+        return meterRegistry.counter("availability.check", "field", field, "result", result).count();
+    }
+
+    @Test
+    void negativeSkipsTheDatabase() {
+        insert("alice", "alice@example.com");
+        insert("bob", "bob@example.com");
+        insert("carol", "carol@example.com");
+        service.load();
+
+        assertThat(service.isUsernameTaken("dave")).isFalse();
+        assertThat(service.isEmailTaken("dave@example.com")).isFalse();
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(userRepository, never()).existsByEmail(anyString());
+        assertThat(checks("username", "bloom-negative")).isEqualTo(1);
+    }
+
+    @Test
+    void positiveIsConfirmedByTheDatabase() {
+        insert("alice", "alice@example.com");
+        service.load();
+        when(userRepository.existsByUsername("ALICE")).thenReturn(true);
+        when(userRepository.existsByEmail("Alice@Example.com")).thenReturn(true);
+
+        assertThat(service.isUsernameTaken("ALICE")).isTrue();
+        assertThat(service.isEmailTaken("Alice@Example.com")).isTrue();
+        assertThat(checks("username", "db-hit")).isEqualTo(1);
+    }
+
+    @Test
+    void falsePositiveFallsThroughToTheDatabase() {
+        service.load();
+        // In the filter but no longer in the table, as after a delete
+        User deleted = new User();
+        deleted.setUsername("ghost");
+        deleted.setEmail("ghost@example.com");
+        service.recordUser(deleted);
+
+        assertThat(service.isUsernameTaken("ghost")).isFalse();
+        verify(userRepository).existsByUsername("ghost");
+        assertThat(checks("username", "db-miss")).isEqualTo(1);
+    }
+
+    @Test
+    void refreshPicksUpUsersSavedOnOtherNodes() {
+        insert("alice", "alice@example.com");
+        service.load();
+        insert("erin", "erin@example.com");
+        insert("frank", "frank@example.com");
+        insert("grace", "grace@example.com");
+        when(userRepository.existsByUsername(anyString())).thenReturn(true);
+
+        service.refresh();
+
+        assertThat(service.isUsernameTaken("erin")).isTrue();
+        assertThat(service.isUsernameTaken("grace")).isTrue();
+        assertThat(checks("username", "bloom-negative")).isZero();
+    }
+
+    @Test
+    void staleOrUnloadedFiltersAreNotTrusted() {
+        assertThat(service.isUsernameTaken("dave")).isFalse();
+        verify(userRepository).existsByUsername("dave");
+
+        service.load();
+        ReflectionTestUtils.setField(service, "maxStalenessMs", -1L);
+        assertThat(service.isUsernameTaken("erin")).isFalse();
+        verify(userRepository).existsByUsername("erin");
+        assertThat(checks("username", "bloom-negative")).isZero();
+    }
+
+    @Test
+    void keysFollowTheAccentInsensitiveCollation() {
+        assertThat(AvailabilityService.key("Straße")).isEqualTo("strasse");
+        assertThat(AvailabilityService.key("Ærøskøbing")).isEqualTo("aeroskobing");
+        assertThat(AvailabilityService.key("Đức")).isEqualTo("duc");
+        assertThat(AvailabilityService.key("ﬁona")).isEqualTo("fiona");
+        // Letters without a known ASCII equivalent are left to the database
+        assertThat(AvailabilityService.key("Þór")).isNull();
+
+        insert("straße", "strasse@example.com");
+        service.load();
+        when(userRepository.existsByUsername("STRASSE")).thenReturn(true);
+        assertThat(service.isUsernameTaken("STRASSE")).isTrue();
+    }
+}
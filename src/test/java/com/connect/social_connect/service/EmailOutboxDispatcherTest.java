@@ -0,0 +1,185 @@
+package com.connect.social_connect.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.connect.social_connect.config.MailOutboxProperties;
+import com.connect.social_connect.domain.EmailOutbox;
+import com.connect.social_connect.repository.EmailOutboxRepository;
+import com.connect.social_connect.util.InProcessSmtpServer;
+import com.connect.social_connect.util.constant.EmailOutboxStatusEnum;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * EmailOutboxDispatcher delivering through a real JavaMailSender to an
+ * in-process SMTP server; the outbox table is mocked
+ */
+class EmailOutboxDispatcherTest {
+
+    private InProcessSmtpServer smtpServer;
+    private EmailOutboxRepository outboxRepository;
+    private MailOutboxProperties properties;
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        smtpServer = new InProcessSmtpServer();
+
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(smtpServer.getPort());
+
+        outboxRepository = Mockito.mock(EmailOutboxRepository.class);
+        EmailService emailService = new EmailService(mailSender, outboxRepository,
+                Mockito.mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@example.com");
+        ReflectionTestUtils.setField(emailService, "applicationName", "Social Connect");
+
+        properties = new MailOutboxProperties();
+        properties.setConcurrency(4);
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(Duration.ofSeconds(10));
+        properties.setMaxBackoff(Duration.ofMinutes(5));
+        dispatcher = new EmailOutboxDispatcher(outboxRepository, emailService, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dispatcher.destroy();
+        smtpServer.close();
+    }
+
+    @Test
+    void deliversDueRowAndDeletesIt() {
+        queue(outboxRow(1L, "alice@example.com", 0));
+
+        assertThat(dispatcher.drain()).isEqualTo(1);
+
+        verify(outboxRepository, timeout(5_000)).deleteLeased(eq(1L), anyString(), any());
+        assertThat(smtpServer.getMessages()).hasSize(1);
+        InProcessSmtpServer.Message message = smtpServer.getMessages().get(0);
+        assertThat(message.from()).isEqualTo("noreply@example.com");
+        assertThat(message.recipients()).containsExactly("alice@example.com");
+        assertThat(message.data()).contains("Subject: Welcome");
+    }
+
+    @Test
+    void temporaryFailureIsRetriedWithBackoff() {
+        smtpServer.failNextData(1);
+        queue(outboxRow(2L, "bob@example.com", 0));
+        Instant before = Instant.now();
+
+        dispatcher.drain();
+
+        // First retry lands in the upper half of the initial backoff
+        verify(outboxRepository, timeout(5_000)).recordFailure(eq(2L), anyString(), any(),
+                eq(EmailOutboxStatusEnum.PENDING),
+                argThat(next -> !next.isBefore(before.plusSeconds(5)) && !next.isAfter(Instant.now().plusSeconds(10))),
+                contains("451"));
+        verify(outboxRepository, never()).deleteLeased(eq(2L), anyString(), any());
+        assertThat(smtpServer.getMessages()).isEmpty();
+
+        // Next round goes through
+        queue(outboxRow(2L, "bob@example.com", 1));
+        dispatcher.drain();
+        verify(outboxRepository, timeout(5_000)).deleteLeased(eq(2L), anyString(), any());
+        assertThat(smtpServer.getMessages()).hasSize(1);
+    }
+
+    @Test
+    void rowIsDeadLetteredOnceAttemptsAreUsedUp() {
+        smtpServer.failNextData(1);
+        queue(outboxRow(3L, "carol@example.com", properties.getMaxAttempts() - 1));
+
+        dispatcher.drain();
+
+        verify(outboxRepository, timeout(5_000)).deadLetter(eq(3L), anyString(), any(),
+                eq(EmailOutboxStatusEnum.DEAD), any(), contains("451"));
+    }
+
+    @Test
+    void unknownRecipientIsDeadLetteredWithoutRetry() {
+        smtpServer.rejectRecipient("ghost@example.com");
+        queue(outboxRow(4L, "ghost@example.com", 0));
+
+        dispatcher.drain();
+
+        verify(outboxRepository, timeout(5_000)).deadLetter(eq(4L), anyString(), any(),
+                eq(EmailOutboxStatusEnum.DEAD), any(), any());
+        assertThat(smtpServer.getMessages()).isEmpty();
+    }
+
+    @Test
+    void rowClaimedByAnotherNodeIsSkipped() {
+        when(outboxRepository.findDueIds(anyList(), any(), any())).thenReturn(List.of(5L));
+        when(outboxRepository.claim(eq(5L), any(), anyString(), any(), any(), any())).thenReturn(0);
+
+        assertThat(dispatcher.drain()).isZero();
+
+        verify(outboxRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void outcomeIsWrittenUnderTheClaimedLease() {
+        queue(outboxRow(6L, "dave@example.com", 0));
+        ArgumentCaptor<String> owner = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Instant> leaseUntil = ArgumentCaptor.forClass(Instant.class);
+
+        dispatcher.drain();
+
+        verify(outboxRepository).claim(eq(6L), any(), owner.capture(), leaseUntil.capture(), any(), any());
+        verify(outboxRepository, timeout(5_000)).deleteLeased(6L, owner.getValue(), leaseUntil.getValue());
+    }
+
+    @Test
+    void backoffDoublesAndIsCapped() {
+        assertThat(dispatcher.backoff(1)).isBetween(Duration.ofSeconds(5), Duration.ofSeconds(10));
+        assertThat(dispatcher.backoff(3)).isBetween(Duration.ofSeconds(20), Duration.ofSeconds(40));
+        assertThat(dispatcher.backoff(40)).isBetween(Duration.ofMinutes(2), Duration.ofMinutes(5));
+    }
+
+    private void queue(EmailOutbox row) {
+        when(outboxRepository.findDueIds(anyList(), any(), any())).thenReturn(List.of(row.getId()));
+        when(outboxRepository.claim(eq(row.getId()), any(), anyString(), any(), any(), any())).thenReturn(1);
+        when(outboxRepository.findById(row.getId())).thenReturn(Optional.of(row));
+        when(outboxRepository.deleteLeased(eq(row.getId()), anyString(), any())).thenReturn(1);
+        when(outboxRepository.recordFailure(eq(row.getId()), anyString(), any(), any(), any(), any())).thenReturn(1);
+        when(outboxRepository.deadLetter(eq(row.getId()), anyString(), any(), any(), any(), any())).thenReturn(1);
+    }
+
+    private static EmailOutbox outboxRow(Long id, String recipient, int attempts) {
+        EmailOutbox row = new EmailOutbox();
+        row.setId(id);
+        row.setRecipient(recipient);
+        row.setSubject("Welcome");
+        row.setHtmlBody("<p>Hello</p>");
+        row.setAttempts(attempts);
+        row.setStatus(EmailOutboxStatusEnum.SENDING);
+        return row;
+    }
+}
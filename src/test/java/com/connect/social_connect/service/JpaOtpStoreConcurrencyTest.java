@@ -0,0 +1,141 @@
+package com.connect.social_connect.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.connect.social_connect.domain.OtpVerification;
+import com.connect.social_connect.repository.OtpVerificationRepository;
+import com.connect.social_connect.service.OtpStore.ResendResult;
+import com.connect.social_connect.service.OtpStore.ResendStatus;
+import com.connect.social_connect.service.OtpStore.VerifyResult;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static com.connect.social_connect.service.OtpStoreConcurrencyTest.THREADS;
+import static com.connect.social_connect.service.OtpStoreConcurrencyTest.runInParallel;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The parallel guesses of OtpStoreConcurrencyTest against JpaOtpStore on a real
+ * database (H2 in MySQL mode), so the conditional DELETE / UPDATE statements
+ * decide the races. Each call commits on its own, as in production.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:otp-concurrency;MODE=MySQL;DATABASE_TO_LOWER=TRUE;LOCK_TIMEOUT=10000",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.otp.store=jpa"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JpaOtpStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JpaOtpStoreConcurrencyTest {
+
+    private static final Duration LOCKOUT = Duration.ofMinutes(15);
+    private static final String EMAIL = "alice@example.com";
+    private static final String CODE = "123456";
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private JpaOtpStore store;
+
+    @Autowired
+    private OtpVerificationRepository otpVerificationRepository;
+
+    private Instant now;
+
+    @BeforeEach
+    void issue() {
+        now = Instant.now();
+        store.issue(EMAIL, CODE, now.plus(Duration.ofMinutes(5)), now);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        otpVerificationRepository.deleteAll();
+    }
+
+    private OtpVerification row() {
+        return otpVerificationRepository.findByEmail(EMAIL).orElseThrow();
+    }
+
+    @Test
+    void codeIsConsumedExactlyOnce() throws Exception {
+        Map<VerifyResult, Integer> results = runInParallel(i -> store.verify(EMAIL, CODE, now, 5, LOCKOUT));
+
+        assertThat(results.get(VerifyResult.VERIFIED)).isEqualTo(1);
+        assertThat(results.get(VerifyResult.NOT_FOUND)).isEqualTo(THREADS - 1);
+        assertThat(otpVerificationRepository.findByEmail(EMAIL)).isEmpty();
+    }
+
+    @Test
+    void everyParallelWrongGuessIsCounted() throws Exception {
+        // Limit out of reach, so every guess must land as an increment
+        Map<VerifyResult, Integer> results = runInParallel(i -> store.verify(EMAIL,
+                String.valueOf(200000 + i), now, THREADS + 1, LOCKOUT));
+
+        assertThat(results).containsOnlyKeys(VerifyResult.INVALID);
+        assertThat(row().getAttemptCount()).isEqualTo(THREADS);
+        assertThat(row().getLockedUntil()).isNull();
+    }
+
+    @Test
+    void lockoutHoldsUnderParallelWrongGuesses() throws Exception {
+        Map<VerifyResult, Integer> results = runInParallel(i -> store.verify(EMAIL,
+                String.valueOf(200000 + i), now, 5, LOCKOUT));
+
+        assertThat(results.get(VerifyResult.INVALID)).isEqualTo(5);
+        assertThat(results.get(VerifyResult.LOCKED)).isEqualTo(THREADS - 5);
+        assertThat(row().getAttemptCount()).isEqualTo(5);
+        assertThat(row().getLockedUntil()).isAfter(now);
+        assertThat(store.verify(EMAIL, CODE, now, 5, LOCKOUT)).isEqualTo(VerifyResult.LOCKED);
+    }
+
+    @Test
+    void correctGuessAmongParallelWrongOnesSucceedsOnce() throws Exception {
+        // Thread 50 has the right code; wrong guesses before it are counted, after it find no OTP
+        Map<VerifyResult, Integer> results = runInParallel(i -> store.verify(EMAIL,
+                i == 50 ? CODE : String.valueOf(200000 + i), now, THREADS + 1, LOCKOUT));
+
+        assertThat(results.get(VerifyResult.VERIFIED)).isEqualTo(1);
+        assertThat(results.getOrDefault(VerifyResult.INVALID, 0) + results.getOrDefault(VerifyResult.NOT_FOUND, 0))
+                .isEqualTo(THREADS - 1);
+        assertThat(otpVerificationRepository.findByEmail(EMAIL)).isEmpty();
+    }
+
+    @Test
+    void resendLimitHoldsUnderParallelRequests() throws Exception {
+        Map<ResendResult, Integer> results = runInParallel(i -> store.resend(EMAIL, String.valueOf(300000 + i),
+                now.plus(Duration.ofMinutes(5)), now, 3));
+
+        // One RESENT per remaining count 2, 1, 0, the rest refused
+        assertThat(results).containsOnlyKeys(
+                new ResendResult(ResendStatus.RESENT, 2),
+                new ResendResult(ResendStatus.RESENT, 1),
+                new ResendResult(ResendStatus.RESENT, 0),
+                new ResendResult(ResendStatus.LIMIT_REACHED, 0));
+        assertThat(results.get(new ResendResult(ResendStatus.LIMIT_REACHED, 0))).isEqualTo(THREADS - 3);
+        assertThat(row().getResendCount()).isEqualTo(3);
+        assertThat(row().getAttemptCount()).isZero();
+    }
+}
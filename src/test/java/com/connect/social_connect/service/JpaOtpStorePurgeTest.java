@@ -0,0 +1,109 @@
+package com.connect.social_connect.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.connect.social_connect.domain.OtpVerification;
+import com.connect.social_connect.repository.OtpVerificationRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JpaOtpStore.purgeExpired and its native DELETE ... LIMIT on a real database
+ * (H2 in MySQL mode), with a batch size smaller than the dead rows so the purge
+ * loops over several chunks.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:otp-purge;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.otp.store=jpa",
+        "app.otp.resend-cooldown-minutes=30",
+        "app.otp.purge-batch-size=2",
+        "app.otp.purge-pause-ms=0"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JpaOtpStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class JpaOtpStorePurgeTest {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private JpaOtpStore store;
+
+    @Autowired
+    private OtpVerificationRepository otpVerificationRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Instant now = Instant.now();
+
+    @AfterEach
+    void cleanUp() {
+        otpVerificationRepository.deleteAll();
+    }
+
+    private void seed(String email, Duration expiresIn, Duration issuedAgo, Duration lockedFor) {
+        OtpVerification row = new OtpVerification();
+        row.setEmail(email);
+        row.setOtpCode("123456");
+        row.setExpiresAt(now.plus(expiresIn));
+        row.setAttemptCount(0);
+        row.setResendCount(0);
+        row.setCreatedAt(now.minus(issuedAgo));
+        row.setLockedUntil(lockedFor != null ? now.plus(lockedFor) : null);
+        otpVerificationRepository.save(row);
+    }
+
+    @Test
+    void purgeDeletesOnlyDeadRowsInBatches() {
+        // Expired long ago, past the resend cooldown: five of them, so three batches of 2, 2 and 1
+        for (int i = 0; i < 5; i++) {
+            seed("expired-" + i + "@example.com", Duration.ofHours(-1), Duration.ofHours(2), null);
+        }
+        // A lockout that has run out no longer protects the row
+        seed("lock-lapsed@example.com", Duration.ofHours(-1), Duration.ofHours(2), Duration.ofMinutes(-5));
+        // Still locked: deleting it would lift the lockout
+        seed("locked@example.com", Duration.ofHours(-1), Duration.ofHours(2), Duration.ofMinutes(10));
+        // Expired but issued within the cooldown: deleting it would reset the resend limit
+        seed("recent@example.com", Duration.ofMinutes(-1), Duration.ofMinutes(10), null);
+        seed("live@example.com", Duration.ofMinutes(5), Duration.ZERO, null);
+
+        store.purgeExpired();
+
+        assertThat(otpVerificationRepository.findAll())
+                .extracting(OtpVerification::getEmail)
+                .containsExactlyInAnyOrder("locked@example.com", "recent@example.com", "live@example.com");
+        assertThat(meterRegistry.counter("otp.purge.rows").count()).isEqualTo(6);
+    }
+
+    @Test
+    void purgeWithNothingDeadKeepsEveryRow() {
+        seed("live@example.com", Duration.ofMinutes(5), Duration.ZERO, null);
+
+        store.purgeExpired();
+
+        assertThat(otpVerificationRepository.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,110 @@
+package com.connect.social_connect.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.Test;
+
+import com.connect.social_connect.service.OtpStore.VerifyResult;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parallel guesses against one OTP: the attempt limit and single use must hold
+ * no matter how verifications interleave
+ */
+class OtpStoreConcurrencyTest {
+
+    static final int THREADS = 100;
+    private static final int MAX_ATTEMPTS = 5;
+    private static final Duration LOCKOUT = Duration.ofMinutes(15);
+    private static final String EMAIL = "alice@example.com";
+    private static final String CODE = "123456";
+
+    @Test
+    void lockoutHoldsUnderParallelWrongGuesses() throws Exception {
+        OtpStore store = issuedStore();
+        Instant now = Instant.now();
+
+        Map<VerifyResult, Integer> results = runInParallel(i -> store.verify(EMAIL,
+                String.valueOf(200000 + i), now, MAX_ATTEMPTS, LOCKOUT));
+
+        assertThat(results.getOrDefault(VerifyResult.INVALID, 0)).isEqualTo(MAX_ATTEMPTS);
+        assertThat(results.getOrDefault(VerifyResult.LOCKED, 0)).isEqualTo(THREADS - MAX_ATTEMPTS);
+        // Even the right code is refused once locked
+        assertThat(store.verify(EMAIL, CODE, now, MAX_ATTEMPTS, LOCKOUT)).isEqualTo(VerifyResult.LOCKED);
+    }
+
+    @Test
+    void correctGuessAmongParallelWrongOnesNeverExceedsLimit() throws Exception {
+        OtpStore store = issuedStore();
+        Instant now = Instant.now();
+
+        // Thread 50 has the right code, everyone else guesses wrong
+        Map<VerifyResult, Integer> results = runInParallel(i -> store.verify(EMAIL,
+                i == 50 ? CODE : String.valueOf(200000 + i), now, MAX_ATTEMPTS, LOCKOUT));
+
+        assertThat(results.getOrDefault(VerifyResult.INVALID, 0)).isLessThanOrEqualTo(MAX_ATTEMPTS);
+        assertThat(results.getOrDefault(VerifyResult.VERIFIED, 0)).isLessThanOrEqualTo(1);
+        int total = results.values().stream().mapToInt(Integer::intValue).sum();
+        assertThat(total).isEqualTo(THREADS);
+    }
+
+    @Test
+    void codeIsConsumedExactlyOnce() throws Exception {
+        OtpStore store = issuedStore();
+        Instant now = Instant.now();
+
+        Map<VerifyResult, Integer> results = runInParallel(i -> store.verify(EMAIL, CODE, now,
+                MAX_ATTEMPTS, LOCKOUT));
+
+        assertThat(results.get(VerifyResult.VERIFIED)).isEqualTo(1);
+        assertThat(results.get(VerifyResult.NOT_FOUND)).isEqualTo(THREADS - 1);
+    }
+
+    private static OtpStore issuedStore() {
+        OtpStore store = new InMemoryOtpStore(30, new SimpleMeterRegistry());
+        Instant now = Instant.now();
+        store.issue(EMAIL, CODE, now.plus(Duration.ofMinutes(5)), now);
+        return store;
+    }
+
+    // Start THREADS calls at once and tally the outcomes; shared with JpaOtpStoreConcurrencyTest
+    static <T> Map<T, Integer> runInParallel(IntFunction<T> call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<T>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                int thread = i;
+                Callable<T> task = () -> {
+                    start.await();
+                    return call.apply(thread);
+                };
+                futures.add(pool.submit(task));
+            }
+            start.countDown();
+
+            Map<T, Integer> results = new HashMap<>();
+            for (Future<T> future : futures) {
+                results.merge(future.get(30, TimeUnit.SECONDS), 1, Integer::sum);
+            }
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
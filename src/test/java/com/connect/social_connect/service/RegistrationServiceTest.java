@@ -0,0 +1,124 @@
+package com.connect.social_connect.service;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.connect.social_connect.domain.User;
+import com.connect.social_connect.domain.request.ReqRegisterDTO;
+import com.connect.social_connect.repository.UserRepository;
+import com.connect.social_connect.util.error.IdInvalidException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * RegistrationService mapping unique-key violations from the insert back to the
+ * sign-up error messages; repositories and the transaction manager are mocked
+ */
+class RegistrationServiceTest {
+
+    private UserRepository userRepository;
+    private UserService userService;
+    private OtpService otpService;
+    private RegistrationService registrationService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = Mockito.mock(UserRepository.class);
+        userService = Mockito.mock(UserService.class);
+        otpService = Mockito.mock(OtpService.class);
+        PasswordEncoder passwordEncoder = Mockito.mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenReturn("hash");
+
+        registrationService = new RegistrationService(userRepository, userService, otpService,
+                Mockito.mock(EmailService.class), passwordEncoder,
+                Mockito.mock(PlatformTransactionManager.class), new SimpleMeterRegistry());
+    }
+
+    private static ReqRegisterDTO request() {
+        ReqRegisterDTO dto = new ReqRegisterDTO();
+        dto.setUsername("alice");
+        dto.setEmail("alice@example.com");
+        dto.setPassword("secret1");
+        dto.setConfirmPassword("secret1");
+        return dto;
+    }
+
+    // What Hibernate surfaces for a MySQL duplicate key on the given index
+    private void failInsertOnKey(String key) {
+        when(userRepository.saveAndFlush(any(User.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new SQLIntegrityConstraintViolationException("Duplicate entry 'x' for key 'users." + key + "'")));
+    }
+
+    @Test
+    void duplicateUsernameIsReportedFromTheNamedKey() {
+        failInsertOnKey(User.UK_USERNAME);
+
+        assertThatThrownBy(() -> registrationService.register(request()))
+                .isInstanceOf(IdInvalidException.class)
+                .hasMessage("Username đã tồn tại");
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(otpService, never()).generateOtp(anyString());
+        verify(userService, never()).onUserCreated(any());
+    }
+
+    @Test
+    void duplicateEmailIsReportedFromTheNamedKey() {
+        failInsertOnKey(User.UK_EMAIL);
+
+        assertThatThrownBy(() -> registrationService.register(request()))
+                .isInstanceOf(IdInvalidException.class)
+                .hasMessage("Email đã tồn tại");
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userService, never()).onUserCreated(any());
+    }
+
+    @Test
+    void unknownKeyFallsBackToLookups() {
+        // Index name generated by Hibernate before the keys were named
+        failInsertOnKey("UK_r43af9ap4edm43mmtq01oddj6");
+        when(userRepository.existsByUsername("alice")).thenReturn(true);
+
+        assertThatThrownBy(() -> registrationService.register(request()))
+                .isInstanceOf(IdInvalidException.class)
+                .hasMessage("Username đã tồn tại");
+        verify(userRepository).existsByEmail("alice@example.com");
+    }
+
+    @Test
+    void unknownKeyWithNoMatchingUserIsRethrown() {
+        failInsertOnKey("PRIMARY");
+
+        assertThatThrownBy(() -> registrationService.register(request()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        verify(userService, never()).onUserCreated(any());
+    }
+
+    @Test
+    void successfulSignUpQueuesTheOtpAndNotifiesListeners() throws Exception {
+        when(userRepository.saveAndFlush(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(otpService.generateOtp("alice@example.com")).thenReturn("123456");
+
+        User saved = registrationService.register(request());
+
+        assertThat(saved.getUsername()).isEqualTo("alice");
+        assertThat(saved.getPasswordHash()).isEqualTo("hash");
+        assertThat(saved.getIsEmailVerified()).isFalse();
+        verify(userService).onUserCreated(saved);
+    }
+}
@@ -0,0 +1,92 @@
+package com.connect.social_connect.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.connect.social_connect.domain.Permission;
+import com.connect.social_connect.domain.Role;
+import com.connect.social_connect.domain.response.ResRoleDTO;
+import com.connect.social_connect.domain.response.ResultPaginationDTO;
+import com.connect.social_connect.repository.PermissionRepository;
+import com.connect.social_connect.repository.RoleRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for RoleService
+ * Feature: role-module
+ */
+class RoleServicePropertyTest {
+
+    /**
+     * Property: listing a page of roles issues a fixed number of queries
+     *
+     * For any page size, fetchAllRoles SHALL run exactly one page query and one
+     * permission query, and SHALL never touch a role's lazy permission collection.
+     */
+    @Property(tries = 50)
+    @SuppressWarnings("unchecked")
+    void roleListingUsesConstantNumberOfQueries(
+            @ForAll @IntRange(min = 1, max = 200) int pageSize,
+            @ForAll @IntRange(min = 0, max = 5) int permissionsPerRole) {
+
+        RoleRepository roleRepository = Mockito.mock(RoleRepository.class);
+        PermissionRepository permissionRepository = Mockito.mock(PermissionRepository.class);
+        RoleService roleService = new RoleService(roleRepository, permissionRepository,
+                Mockito.mock(AuthorizationService.class));
+
+        // Lazy collections that must never be initialized
+        List<List<Permission>> lazyCollections = new ArrayList<>();
+        List<Role> roles = new ArrayList<>();
+        List<Object[]> permissionRows = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            Role role = new Role();
+            role.setId(id);
+            role.setName("ROLE_" + id);
+            List<Permission> lazy = Mockito.mock(List.class);
+            lazyCollections.add(lazy);
+            role.setPermissions(lazy);
+            roles.add(role);
+
+            for (long p = 1; p <= permissionsPerRole; p++) {
+                permissionRows.add(new Object[] { id, p, "perm" + p, "/api/v1/p" + p, "GET", "P",
+                        Instant.EPOCH, null });
+            }
+        }
+
+        Pageable pageable = PageRequest.of(0, pageSize);
+        when(roleRepository.findAll(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(roles, pageable, roles.size()));
+        when(roleRepository.findPermissionRowsByRoleIds(anyCollection())).thenReturn(permissionRows);
+
+        ResultPaginationDTO result = roleService.fetchAllRoles(Specification.where(null), pageable);
+
+        verify(roleRepository, times(1)).findAll(any(Specification.class), any(Pageable.class));
+        verify(roleRepository, times(1)).findPermissionRowsByRoleIds(anyCollection());
+        verifyNoMoreInteractions(roleRepository);
+        verifyNoInteractions(permissionRepository);
+        for (List<Permission> lazy : lazyCollections) {
+            verifyNoInteractions(lazy);
+        }
+
+        List<ResRoleDTO> dtos = (List<ResRoleDTO>) result.getResult();
+        assertThat(dtos).hasSize(pageSize);
+        assertThat(dtos).allSatisfy(dto -> assertThat(dto.getPermissions()).hasSize(permissionsPerRole));
+    }
+}
@@ -0,0 +1,82 @@
+package com.connect.social_connect.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.connect.social_connect.config.HibernateConfig;
+import com.connect.social_connect.config.StatementCounter;
+import com.connect.social_connect.domain.Permission;
+import com.connect.social_connect.domain.Role;
+import com.connect.social_connect.domain.response.ResRoleDTO;
+import com.connect.social_connect.domain.response.ResultPaginationDTO;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SQL statements issued by the role listing, counted with StatementCounter
+ * against a real Hibernate session (H2 in MySQL mode)
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:role-statements;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ RoleService.class, HibernateConfig.class })
+class RoleServiceStatementCountTest {
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @MockBean
+    private AuthorizationService authorizationService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void roleListingIssuesTheSameStatementsForAnyPageSize() {
+        List<Permission> permissions = new ArrayList<>();
+        for (int p = 0; p < 4; p++) {
+            permissions.add(entityManager.persist(
+                    new Permission("perm" + p, "/api/v1/p" + p, "GET", "P")));
+        }
+        for (int r = 0; r < 30; r++) {
+            Role role = new Role();
+            role.setName("ROLE_" + r);
+            role.setPermissions(new ArrayList<>(permissions));
+            entityManager.persist(role);
+        }
+        entityManager.flush();
+
+        long small = countStatements(3);
+        long large = countStatements(30);
+
+        // Page query, count query and one permission query, however many roles are on the page
+        assertThat(small).isLessThanOrEqualTo(3);
+        assertThat(large).isEqualTo(small);
+
+        entityManager.clear();
+        ResultPaginationDTO result = roleService.fetchAllRoles(Specification.where(null), PageRequest.of(0, 30));
+        assertThat((List<ResRoleDTO>) result.getResult())
+                .hasSize(30)
+                .allSatisfy(dto -> assertThat(dto.getPermissions()).hasSize(4));
+    }
+
+    private long countStatements(int pageSize) {
+        entityManager.clear();
+        long before = StatementCounter.current();
+        roleService.fetchAllRoles(Specification.where(null), PageRequest.of(0, pageSize));
+        return StatementCounter.current() - before;
+    }
+}
@@ -0,0 +1,63 @@
+package com.connect.social_connect.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+
+import com.connect.social_connect.repository.UserRepository;
+import com.connect.social_connect.repository.UserSearchRow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for the keyset-paged bulk load shared by the search index and the
+ * mention trie
+ */
+class UserIndexLoaderTest {
+
+    private static UserSearchRow row(long id) {
+        return new UserSearchRow(id, "user" + id, "User " + id, null);
+    }
+
+    @Test
+    void pagesByLastIdUntilAShortBatch() {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        when(userRepository.findSearchRowsAfter(eq(0L), eq(PageRequest.of(0, 2)))).thenReturn(List.of(row(1), row(4)));
+        when(userRepository.findSearchRowsAfter(eq(4L), eq(PageRequest.of(0, 2)))).thenReturn(List.of(row(7)));
+
+        List<Long> loaded = new ArrayList<>();
+        new UserIndexLoader(userRepository).load(2, r -> loaded.add(r.id()));
+
+        assertThat(loaded).containsExactly(1L, 4L, 7L);
+        verify(userRepository).findSearchRowsAfter(eq(4L), eq(PageRequest.of(0, 2)));
+    }
+
+    @Test
+    void skipsUsersRemovedWhileLoading() {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        UserIndexLoader loader = new UserIndexLoader(userRepository);
+        when(userRepository.findSearchRowsAfter(eq(0L), eq(PageRequest.of(0, 2)))).thenAnswer(invocation -> {
+            // Deleted after its row was read by this batch
+            loader.removed(2L);
+            return List.of(row(1), row(2));
+        });
+        when(userRepository.findSearchRowsAfter(eq(2L), eq(PageRequest.of(0, 2)))).thenReturn(List.of());
+
+        List<Long> loaded = new ArrayList<>();
+        loader.load(2, r -> loaded.add(r.id()));
+        assertThat(loaded).containsExactly(1L);
+
+        // Removals outside a load are not remembered
+        loader.removed(1L);
+        when(userRepository.findSearchRowsAfter(eq(0L), eq(PageRequest.of(0, 2)))).thenReturn(List.of(row(1)));
+        loaded.clear();
+        loader.load(2, r -> loaded.add(r.id()));
+        assertThat(loaded).containsExactly(1L);
+    }
+}
@@ -0,0 +1,126 @@
+package com.connect.social_connect.service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import net.jqwik.api.*;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+import org.mockito.Mockito;
+
+import com.connect.social_connect.repository.UserRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Property-based tests for UsernameAllocator
+ * Feature: oauth2-username-allocation
+ */
+class UsernameAllocatorPropertyTest {
+
+    /**
+     * Property: allocation picks the smallest free suffix with one query
+     *
+     * For any set of taken suffixes of a base, allocate SHALL return the base with
+     * the smallest suffix not taken (no suffix when the bare base is free) and
+     * SHALL read the taken names with a single prefix query.
+     */
+    @Property(tries = 100)
+    void allocatesSmallestFreeSuffixWithOneQuery(
+            @ForAll @Size(max = 30) Set<@IntRange(min = 0, max = 40) Integer> takenSuffixes) {
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        List<String> taken = new ArrayList<>();
+        for (int suffix : takenSuffixes) {
+            taken.add(suffix == 0 ? "alice" : "alice" + suffix);
+        }
+        // Names sharing the prefix but not of the base+number form do not count
+        taken.add("alicent");
+        taken.add("alice07");
+        when(userRepository.findUsernamesLike("alice%")).thenReturn(taken);
+
+        String username = new UsernameAllocator(userRepository).allocate("Alice@example.com");
+
+        int expected = 0;
+        while (takenSuffixes.contains(expected)) {
+            expected++;
+        }
+        assertThat(username).isEqualTo(expected == 0 ? "alice" : "alice" + expected);
+        verify(userRepository, times(1)).findUsernamesLike(anyString());
+    }
+
+    /**
+     * Property: concurrent allocations never hand out the same name
+     *
+     * For any number of concurrent sign-ups sharing a base, before any of them is
+     * saved, every allocate call SHALL return a distinct name not already taken.
+     */
+    @Property(tries = 20)
+    void concurrentAllocationsAreDistinct(
+            @ForAll @IntRange(min = 2, max = 32) int threads,
+            @ForAll @IntRange(min = 0, max = 5) int alreadyTaken) throws Exception {
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        List<String> taken = new ArrayList<>();
+        for (int i = 0; i < alreadyTaken; i++) {
+            taken.add(i == 0 ? "bob" : "bob" + i);
+        }
+        when(userRepository.findUsernamesLike("bob%")).thenReturn(taken);
+        UsernameAllocator allocator = new UsernameAllocator(userRepository);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return allocator.allocate("bob@example.com");
+                }));
+            }
+            start.countDown();
+
+            Set<String> names = new HashSet<>();
+            for (Future<String> result : results) {
+                names.add(result.get());
+            }
+            assertThat(names).hasSize(threads);
+            // noneMatch rather than doesNotContainAnyElementsOf, which rejects an empty taken list
+            assertThat(names.stream().noneMatch(taken::contains)).isTrue();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Property: a released name can be handed out again
+     */
+    @Property(tries = 20)
+    void releasedNameIsReusable(@ForAll @IntRange(min = 1, max = 10) int rounds) {
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        when(userRepository.findUsernamesLike("carol%")).thenReturn(List.of());
+        UsernameAllocator allocator = new UsernameAllocator(userRepository);
+
+        for (int i = 0; i < rounds; i++) {
+            String username = allocator.allocate("carol@example.com");
+            assertThat(username).isEqualTo("carol");
+            allocator.release(username);
+        }
+    }
+
+    @Example
+    void fallsBackWhenLocalPartHasNoAlphanumerics() {
+        assertThat(UsernameAllocator.baseOf("...@example.com")).isEqualTo("user");
+        assertThat(UsernameAllocator.baseOf("Nguyen.Van-A@example.com")).isEqualTo("nguyenvana");
+    }
+}
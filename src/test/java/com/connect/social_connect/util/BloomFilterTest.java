@@ -0,0 +1,56 @@
+package com.connect.social_connect.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for BloomFilter: no false negatives, false positive rate near the target
+ */
+class BloomFilterTest {
+
+    @Test
+    void neverMissesAnInsertedKey() {
+        BloomFilter filter = new BloomFilter(100_000, 0.001);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i);
+        }
+
+        for (int i = 0; i < 100_000; i++) {
+            assertThat(filter.mightContain("user" + i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        for (int i = 0; i < 100_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        // 1% target, allow some slack for the hash
+        assertThat(falsePositives).isLessThan(1_500);
+    }
+
+    @Test
+    void sizesFromExpectedInsertionsAndRate() {
+        BloomFilter filter = new BloomFilter(1_000_000, 0.001);
+
+        // ~14.4 bits per key and 10 hashes for 0.1%
+        assertThat(filter.bitSize()).isBetween(14_000_000L, 15_000_000L);
+        assertThat(filter.hashCount()).isEqualTo(10);
+    }
+
+    @Test
+    void emptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(1_000, 0.01);
+
+        assertThat(filter.mightContain("alice")).isFalse();
+    }
+}
@@ -0,0 +1,181 @@
+package com.connect.social_connect.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal SMTP server on a loopback port for tests and benchmarks: enough of
+ * RFC 5321 for Jakarta Mail (EHLO, MAIL, RCPT, DATA, RSET, NOOP, QUIT), no
+ * TLS or auth. Received messages are kept in memory. Failures can be injected
+ * (temporary DATA rejections, unknown recipients), and connectDelayMillis
+ * stands in for the TLS and AUTH round trips a real server costs per connection.
+ * dropConnections mimics a server timing out idle sessions.
+ */
+public class InProcessSmtpServer implements AutoCloseable {
+
+    public record Message(String from, List<String> recipients, String data) {
+    }
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "smtp-stand-in");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Message> messages = Collections.synchronizedList(new ArrayList<>());
+    private final Set<Socket> openSockets = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicInteger dataFailuresLeft = new AtomicInteger();
+    private final Set<String> unknownRecipients = ConcurrentHashMap.newKeySet();
+    private volatile long connectDelayMillis;
+
+    public InProcessSmtpServer() throws IOException {
+        serverSocket = new ServerSocket(0, 100, InetAddress.getLoopbackAddress());
+        connections.execute(this::acceptLoop);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public List<Message> getMessages() {
+        return messages;
+    }
+
+    // Connections opened so far, i.e. SMTP handshakes paid
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    // Answer the next n DATA commands with 451 (temporary failure)
+    public void failNextData(int n) {
+        dataFailuresLeft.set(n);
+    }
+
+    // Answer RCPT TO for this address with 550 (permanent failure)
+    public void rejectRecipient(String address) {
+        unknownRecipients.add(address.toLowerCase(Locale.ROOT));
+    }
+
+    public void setConnectDelayMillis(long connectDelayMillis) {
+        this.connectDelayMillis = connectDelayMillis;
+    }
+
+    // Close every open client connection without a reply, as an idle timeout would
+    public void dropConnections() throws IOException {
+        for (Socket socket : openSockets) {
+            socket.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        connections.shutdownNow();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionCount.incrementAndGet();
+                openSockets.add(socket);
+                connections.execute(() -> serve(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+                Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.ISO_8859_1)) {
+            if (connectDelayMillis > 0) {
+                Thread.sleep(connectDelayMillis);
+            }
+            reply(out, "220 localhost SMTP stand-in");
+
+            String from = null;
+            List<String> recipients = new ArrayList<>();
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.startsWith("EHLO")) {
+                    reply(out, "250-localhost\r\n250-8BITMIME\r\n250 SMTPUTF8");
+                } else if (command.startsWith("HELO")) {
+                    reply(out, "250 localhost");
+                } else if (command.startsWith("MAIL FROM:")) {
+                    from = address(line);
+                    recipients.clear();
+                    reply(out, "250 2.1.0 OK");
+                } else if (command.startsWith("RCPT TO:")) {
+                    String recipient = address(line);
+                    if (unknownRecipients.contains(recipient.toLowerCase(Locale.ROOT))) {
+                        reply(out, "550 5.1.1 No such user");
+                    } else {
+                        recipients.add(recipient);
+                        reply(out, "250 2.1.5 OK");
+                    }
+                } else if (command.equals("DATA")) {
+                    if (dataFailuresLeft.getAndUpdate(n -> n > 0 ? n - 1 : 0) > 0) {
+                        reply(out, "451 4.3.0 Try again later");
+                        continue;
+                    }
+                    reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                    StringBuilder data = new StringBuilder();
+                    while ((line = in.readLine()) != null && !line.equals(".")) {
+                        data.append(line.startsWith("..") ? line.substring(1) : line).append("\r\n");
+                    }
+                    messages.add(new Message(from, List.copyOf(recipients), data.toString()));
+                    recipients.clear();
+                    reply(out, "250 2.0.0 Queued");
+                } else if (command.equals("RSET")) {
+                    from = null;
+                    recipients.clear();
+                    reply(out, "250 2.0.0 OK");
+                } else if (command.equals("NOOP")) {
+                    reply(out, "250 2.0.0 OK");
+                } else if (command.equals("QUIT")) {
+                    reply(out, "221 2.0.0 Bye");
+                    return;
+                } else {
+                    reply(out, "502 5.5.2 Command not recognized");
+                }
+            }
+        } catch (IOException | InterruptedException e) {
+            // Client went away or the server is shutting down
+        } finally {
+            openSockets.remove(socket);
+        }
+    }
+
+    private static String address(String line) {
+        int start = line.indexOf('<');
+        int end = line.indexOf('>', start + 1);
+        return start >= 0 && end > start ? line.substring(start + 1, end) : line.substring(line.indexOf(':') + 1).trim();
+    }
+
+    private static void reply(Writer out, String text) throws IOException {
+        out.write(text);
+        out.write("\r\n");
+        out.flush();
+    }
+}
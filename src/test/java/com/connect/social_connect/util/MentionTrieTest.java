@@ -0,0 +1,112 @@
+package com.connect.social_connect.util;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for MentionTrie prefix matching, proximity tiers and incremental updates
+ */
+class MentionTrieTest {
+
+    private static List<Long> ids(List<MentionTrie.Suggestion> suggestions) {
+        return suggestions.stream().map(MentionTrie.Suggestion::userId).toList();
+    }
+
+    @Test
+    void matchesUsernameAndDisplayNameWords() {
+        MentionTrie trie = new MentionTrie();
+        trie.upsert(1, "anna", "Anna Smith", null);
+        trie.upsert(2, "bob", "Bob Anders", null);
+        trie.upsert(3, "carol", "Carol", null);
+
+        assertThat(ids(trie.suggest("an", Map.of(), 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(trie.suggest("SMI", Map.of(), 10))).containsExactly(1L);
+        assertThat(trie.suggest("x", Map.of(), 10)).isEmpty();
+    }
+
+    @Test
+    void closeUsersComeFirstByTier() {
+        MentionTrie trie = new MentionTrie();
+        trie.upsert(1, "anna", "Anna", null);
+        trie.upsert(2, "andrew", "Andrew", null);
+        trie.upsert(3, "bob", "Bob Anders", null);
+        trie.upsert(4, "an", "An", null);
+
+        // friend (tier 0) before co-member (tier 1) before everyone else
+        List<Long> result = ids(trie.suggest("an", Map.of(3L, 0, 2L, 1), 10));
+        assertThat(result).startsWith(3L, 2L);
+        assertThat(result).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void withinTierUsernameMatchBeatsDisplayNameAndShorterWins() {
+        MentionTrie trie = new MentionTrie();
+        trie.upsert(1, "bob", "Bob Anders", null);
+        trie.upsert(2, "andrew", "Andrew", null);
+        trie.upsert(3, "ann", "Ann", null);
+
+        assertThat(ids(trie.suggest("an", Map.of(1L, 0, 2L, 0, 3L, 0), 10))).containsExactly(3L, 2L, 1L);
+        assertThat(ids(trie.suggest("an", Map.of(1L, 0, 2L, 0, 3L, 0), 2))).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void upsertReplacesKeysAndRemoveDeletes() {
+        MentionTrie trie = new MentionTrie();
+        trie.upsert(1, "anna", "Anna Smith", "a.png");
+        trie.upsert(1, "anna", "Anna Nguyễn", "b.png");
+
+        assertThat(trie.suggest("smith", Map.of(), 10)).isEmpty();
+        List<MentionTrie.Suggestion> result = trie.suggest("nguyen", Map.of(), 10);
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).avatarUrl()).isEqualTo("b.png");
+
+        trie.remove(1);
+        assertThat(trie.suggest("an", Map.of(1L, 0), 10)).isEmpty();
+        assertThat(trie.size()).isZero();
+    }
+
+    @Test
+    void removePrunesBranchesNoLongerLeadingToAUser() {
+        MentionTrie trie = new MentionTrie();
+        trie.upsert(1, "ann", "Ann", null);
+        int before = trie.nodeCount();
+
+        trie.upsert(2, "annabelle", "Annabelle Lee", null);
+        trie.remove(2);
+        assertThat(trie.nodeCount()).isEqualTo(before);
+        assertThat(ids(trie.suggest("an", Map.of(), 10))).containsExactly(1L);
+
+        // Pruned nodes are reused
+        trie.upsert(3, "bob", "Bob", null);
+        trie.remove(3);
+        trie.remove(1);
+        assertThat(trie.nodeCount()).isEqualTo(1);
+        assertThat(trie.suggest("a", Map.of(), 10)).isEmpty();
+    }
+
+    @Test
+    void excludedUserDoesNotTakeASlot() {
+        MentionTrie trie = new MentionTrie();
+        trie.upsert(1, "ann", "Ann", null);
+        trie.upsert(2, "anna", "Anna", null);
+        trie.upsert(3, "annie", "Annie", null);
+
+        assertThat(ids(trie.suggest("an", Map.of(), 1L, 2))).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(ids(trie.suggest("an", Map.of(1L, 0), 1L, 2))).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    void respectsLimitOnLargeSubtrees() {
+        MentionTrie trie = new MentionTrie();
+        for (int i = 0; i < 5_000; i++) {
+            trie.upsert(i, "user" + i, "User " + i, null);
+        }
+
+        assertThat(trie.suggest("us", Map.of(), 8)).hasSize(8);
+        assertThat(ids(trie.suggest("user4999", Map.of(), 8))).containsExactly(4999L);
+    }
+}
@@ -0,0 +1,94 @@
+package com.connect.social_connect.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for RateLimiter, including a concurrency stress test on a single bucket
+ */
+class RateLimiterTest {
+
+    private static final Duration MINUTE = Duration.ofMinutes(1);
+
+    @Test
+    void allowsExactlyCapacityThenRejects() {
+        AtomicLong clock = new AtomicLong(0);
+        RateLimiter limiter = new RateLimiter(1000, MINUTE, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("k", 5, MINUTE)).isZero();
+        }
+        long wait = limiter.tryAcquire("k", 5, MINUTE);
+        assertThat(wait).isPositive();
+        assertThat(wait).isLessThanOrEqualTo(MINUTE.toNanos() / 5);
+    }
+
+    @Test
+    void refillsOneTokenPerInterval() {
+        AtomicLong clock = new AtomicLong(0);
+        RateLimiter limiter = new RateLimiter(1000, MINUTE, clock::get);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("k", 5, MINUTE);
+        }
+        assertThat(limiter.tryAcquire("k", 5, MINUTE)).isPositive();
+
+        clock.addAndGet(MINUTE.toNanos() / 5);
+        assertThat(limiter.tryAcquire("k", 5, MINUTE)).isZero();
+        assertThat(limiter.tryAcquire("k", 5, MINUTE)).isPositive();
+    }
+
+    @Test
+    void keysAreIndependent() {
+        AtomicLong clock = new AtomicLong(0);
+        RateLimiter limiter = new RateLimiter(1000, MINUTE, clock::get);
+
+        assertThat(limiter.tryAcquire("a", 1, MINUTE)).isZero();
+        assertThat(limiter.tryAcquire("a", 1, MINUTE)).isPositive();
+        assertThat(limiter.tryAcquire("b", 1, MINUTE)).isZero();
+    }
+
+    @Test
+    void concurrentCallersNeverExceedCapacity() throws Exception {
+        int threads = 32;
+        int attemptsPerThread = 1_000;
+        int capacity = 500;
+        // Frozen clock: no refill, so exactly capacity acquisitions may succeed
+        RateLimiter limiter = new RateLimiter(1000, MINUTE, () -> 0L);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                int allowed = 0;
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (limiter.tryAcquire("hot", capacity, MINUTE) == 0) {
+                        allowed++;
+                    }
+                }
+                return allowed;
+            }));
+        }
+        start.countDown();
+
+        int totalAllowed = 0;
+        for (Future<Integer> result : results) {
+            totalAllowed += result.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(totalAllowed).isEqualTo(capacity);
+    }
+}
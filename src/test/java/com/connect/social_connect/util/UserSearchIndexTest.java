@@ -0,0 +1,109 @@
+package com.connect.social_connect.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for UserSearchIndex matching, ranking and incremental updates
+ */
+class UserSearchIndexTest {
+
+    @Test
+    void ranksExactThenPrefixThenInfix() {
+        UserSearchIndex index = new UserSearchIndex(10_000);
+        index.upsert(1, "bananas", "Banana Man");
+        index.upsert(2, "anakin", "Anakin Skywalker");
+        index.upsert(3, "ana", "Ana");
+        index.upsert(4, "joanna", "Hanna Ana Lee");
+
+        // exact username, username prefix, display name word prefix, username infix
+        assertThat(index.search("ana", 10)).containsExactly(3L, 2L, 4L, 1L);
+    }
+
+    @Test
+    void shortQueriesMatchWordPrefixesOnly() {
+        UserSearchIndex index = new UserSearchIndex(10_000);
+        index.upsert(1, "nguyenvana", "Nguyễn Văn A");
+        index.upsert(2, "anna", "Anna Smith");
+        index.upsert(3, "banana", "Banana");
+
+        assertThat(index.search("an", 10)).containsExactly(2L);
+        assertThat(index.search("va", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void ignoresCaseAndDiacritics() {
+        UserSearchIndex index = new UserSearchIndex(10_000);
+        index.upsert(1, "duc", "Đức Trần");
+
+        assertThat(index.search("TRAN", 10)).containsExactly(1L);
+        assertThat(index.search("Đức", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void trigramMatchesAreVerified() {
+        UserSearchIndex index = new UserSearchIndex(10_000);
+        // Has every trigram of "abcabc" but not the string itself
+        index.upsert(1, "abcab", "x");
+
+        assertThat(index.search("abcabc", 10)).isEmpty();
+    }
+
+    @Test
+    void upsertReplacesAndRemoveDeletes() {
+        UserSearchIndex index = new UserSearchIndex(10_000);
+        index.upsert(1, "alice", "Alice");
+        index.upsert(1, "alicia", "Alicia");
+        assertThat(index.search("alice", 10)).isEmpty();
+        assertThat(index.search("alicia", 10)).containsExactly(1L);
+
+        index.remove(1);
+        assertThat(index.search("ali", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void addIfAbsentKeepsNewerEntry() {
+        UserSearchIndex index = new UserSearchIndex(10_000);
+        index.upsert(1, "renamed", "Renamed");
+
+        assertThat(index.addIfAbsent(1, "stale", "Stale")).isFalse();
+        assertThat(index.search("stale", 10)).isEmpty();
+        assertThat(index.search("renamed", 10)).containsExactly(1L);
+    }
+
+    @Test
+    void staysCorrectAcrossCompaction() {
+        UserSearchIndex index = new UserSearchIndex(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            index.upsert(i % 10, "user" + i, "Name " + i);
+        }
+
+        assertThat(index.size()).isEqualTo(10);
+        assertThat(index.search("user9999", 5)).containsExactly(9L);
+        assertThat(index.search("user1", 5)).isEmpty();
+    }
+
+    @Test
+    void exactUsernameSurvivesCandidateCap() {
+        UserSearchIndex index = new UserSearchIndex(5);
+        for (int i = 0; i < 100; i++) {
+            index.upsert(i, "ann" + i, "Ann " + i);
+        }
+        index.upsert(1000, "ann", "Ann");
+
+        assertThat(index.search("ann", 3)).startsWith(1000L).hasSize(3);
+    }
+
+    @Test
+    void respectsLimit() {
+        UserSearchIndex index = new UserSearchIndex(10_000);
+        for (int i = 0; i < 100; i++) {
+            index.upsert(i, "member" + i, "Member " + i);
+        }
+
+        assertThat(index.search("mem", 7)).hasSize(7);
+        assertThat(index.search("me", 7)).startsWith(0L, 1L, 2L);
+    }
+}